@@ -20,6 +20,13 @@ AWS_ENDPOINT="--endpoint-url=http://localhost:4566 --region us-east-1"
 
 aws $AWS_ENDPOINT sqs create-queue --queue-name notification-service-queue
 
+EMPLOYEE_SYNC_DLQ_URL=$(aws $AWS_ENDPOINT sqs create-queue --queue-name employee-sync-dlq --query QueueUrl --output text)
+
+EMPLOYEE_SYNC_DLQ_ARN=$(aws $AWS_ENDPOINT sqs get-queue-attributes --queue-url $EMPLOYEE_SYNC_DLQ_URL --attribute-names QueueArn --query Attributes.QueueArn --output text)
+
+aws $AWS_ENDPOINT sqs create-queue --queue-name employee-sync-queue \
+  --attributes "{\"RedrivePolicy\":\"{\\\"deadLetterTargetArn\\\":\\\"$EMPLOYEE_SYNC_DLQ_ARN\\\",\\\"maxReceiveCount\\\":\\\"5\\\"}\"}"
+
 aws $AWS_ENDPOINT ses verify-email-identity --email-address notifications@email.com
 
 NOTIFICATION_QUEUE_URL=$(aws $AWS_ENDPOINT sqs get-queue-url --queue-name notification-service-queue --query QueueUrl --output text)
@@ -0,0 +1,73 @@
+package io.aslan.employeeservice.benchmark;
+
+import io.aslan.employeeservice.util.AllowanceCalculator;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AllowanceCalculatorBenchmark {
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private final AllowanceCalculator allowanceCalculator = new AllowanceCalculator();
+
+    // the scale the values have when they are loaded from the database
+    private BigDecimal annualSalary;
+    private BigDecimal salaryAllowancePercentage;
+    private long annualSalaryMinorUnits;
+    private long salaryAllowancePercentageMinorUnits;
+
+    private long[] annualSalaries;
+    private long[] salaryAllowancePercentages;
+    private long[] monthlyAllowances;
+
+    @Setup
+    public void setUp() {
+        annualSalary = new BigDecimal("45678.90");
+        salaryAllowancePercentage = new BigDecimal("12.50");
+        annualSalaryMinorUnits = 4_567_890L;
+        salaryAllowancePercentageMinorUnits = 1_250L;
+
+        Random random = new Random(42);
+        annualSalaries = new long[BATCH_SIZE];
+        salaryAllowancePercentages = new long[BATCH_SIZE];
+        monthlyAllowances = new long[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            annualSalaries[i] = random.nextLong(1_000_000, 20_000_000);
+            salaryAllowancePercentages[i] = random.nextLong(0, 10_001);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalReference() {
+        return annualSalary.multiply(salaryAllowancePercentage)
+                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP)
+                .divide(BigDecimal.valueOf(12), 2, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public BigDecimal getMonthlyAllowance() {
+        return allowanceCalculator.getMonthlyAllowance(annualSalary, salaryAllowancePercentage);
+    }
+
+    @Benchmark
+    public long getMonthlyAllowanceMinorUnits() {
+        return allowanceCalculator.getMonthlyAllowance(annualSalaryMinorUnits, salaryAllowancePercentageMinorUnits);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long[] getMonthlyAllowancesBatch() {
+        allowanceCalculator.getMonthlyAllowances(annualSalaries, salaryAllowancePercentages, monthlyAllowances);
+        return monthlyAllowances;
+    }
+}
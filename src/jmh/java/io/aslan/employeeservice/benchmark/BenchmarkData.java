@@ -0,0 +1,31 @@
+package io.aslan.employeeservice.benchmark;
+
+import io.aslan.employeeservice.domain.dto.EmployeeRequestDTO;
+import io.aslan.employeeservice.domain.entity.Employee;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static Employee employee(Long id) {
+        Employee employee = new Employee();
+        employee.setId(id);
+        employee.setFirstName("David");
+        employee.setLastName("Kilan");
+        employee.setEmail("david.kilan" + id + "@example.com");
+        employee.setPayrollId("PAY" + id);
+        employee.setAnnualSalary(new BigDecimal("45678.90"));
+        employee.setSalaryAllowancePercentage(new BigDecimal("12.50"));
+        employee.setLastSalaryChangedDate(LocalDateTime.now());
+        return employee;
+    }
+
+    static EmployeeRequestDTO request(String annualSalary, String salaryAllowancePercentage) {
+        return new EmployeeRequestDTO("David", "Kilan", "david.kilan1@example.com", "PAY1",
+                new BigDecimal(annualSalary), new BigDecimal(salaryAllowancePercentage));
+    }
+}
@@ -0,0 +1,39 @@
+package io.aslan.employeeservice.benchmark;
+
+import io.aslan.employeeservice.domain.dto.EmployeeRequestDTO;
+import io.aslan.employeeservice.domain.dto.EmployeeResponseDTO;
+import io.aslan.employeeservice.domain.entity.Employee;
+import io.aslan.employeeservice.util.EmployeeMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmployeeMapperBenchmark {
+
+    private final EmployeeMapper employeeMapper = new EmployeeMapper();
+
+    private Employee employee;
+    private EmployeeRequestDTO request;
+
+    @Setup
+    public void setUp() {
+        employee = BenchmarkData.employee(1L);
+        request = BenchmarkData.request("45678.90", "12.50");
+    }
+
+    @Benchmark
+    public EmployeeResponseDTO mapEntityToResponse() {
+        return employeeMapper.map(employee);
+    }
+
+    @Benchmark
+    public Employee mapRequestToEntity() {
+        return employeeMapper.map(request);
+    }
+}
@@ -0,0 +1,105 @@
+package io.aslan.employeeservice.benchmark;
+
+import io.aslan.employeeservice.EmployeeServiceApplication;
+import io.aslan.employeeservice.domain.dto.EmployeeResponseDTO;
+import io.aslan.employeeservice.repository.EmployeeRepository;
+import io.aslan.employeeservice.util.EmployeeMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading one page of employees through the service's repository against Postgres, the way it was done before
+ * (managed entities in a read-write transaction, then {@link EmployeeMapper}) and with the DTO projection in a
+ * read-only transaction. Run with the GC profiler to compare {@code gc.alloc.rate.norm}, the heap allocated per page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmployeeReadPathBenchmark {
+
+    private static final int EMPLOYEES = 10_000;
+
+    @Param({"20", "200", "1000"})
+    private int pageSize;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private EmployeeRepository employeeRepository;
+    private EmployeeMapper employeeMapper;
+    private TransactionTemplate readWriteTransaction;
+    private TransactionTemplate readOnlyTransaction;
+    private Pageable page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+        postgres.start();
+
+        context = new SpringApplicationBuilder(EmployeeServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword(),
+                        "spring.jpa.hibernate.ddl-auto=update",
+                        "spring.jpa.show-sql=false",
+                        "spring.cloud.aws.region.static=us-east-1",
+                        "spring.cloud.aws.credentials.access-key=test",
+                        "spring.cloud.aws.credentials.secret-key=test",
+                        "notification.service.queue.url=http://localhost:4566/000000000000/unused",
+                        "notification.outbox.poll-interval=3600000")
+                .run();
+
+        employeeRepository = context.getBean(EmployeeRepository.class);
+        employeeMapper = context.getBean(EmployeeMapper.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        context.getBean(JdbcTemplate.class).update("""
+                insert into employee (id, first_name, last_name, email, payroll_id, annual_salary,
+                                      salary_allowance_percentage, last_salary_changed_date, version)
+                select g, 'First' || g, 'Last' || g, 'employee' || g || '@example.com', 'PAY' || g,
+                       20000 + g % 100000, g % 50, now(), 0
+                from generate_series(1, ?) g""", EMPLOYEES);
+
+        // the middle of the table, so neither variant benefits from the first rows being hot
+        page = PageRequest.of(EMPLOYEES / pageSize / 2, pageSize, Sort.by("id"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public List<EmployeeResponseDTO> managedEntities() {
+        return readWriteTransaction.execute(status -> employeeRepository.findAll(page)
+                .map(employeeMapper::map)
+                .getContent());
+    }
+
+    @Benchmark
+    public List<EmployeeResponseDTO> dtoProjection() {
+        return readOnlyTransaction.execute(status -> employeeRepository.findResponses(page)
+                .getContent());
+    }
+}
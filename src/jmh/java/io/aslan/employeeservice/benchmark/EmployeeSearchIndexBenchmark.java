@@ -0,0 +1,216 @@
+package io.aslan.employeeservice.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs search queries against a million employees in Postgres, with the indexes from
+ * {@code db/employee-indexes.sql}. The SQL is written out by hand in the shape Hibernate generates for
+ * {@link io.aslan.employeeservice.repository.EmployeeSpecifications}, so a change to the specifications has to be
+ * made here as well. Every filter runs with the endpoint's default sort by id, and the range filters also sorted by
+ * their own column. The setup logs the plan of every query and fails if one of them falls back to a sequential
+ * scan.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmployeeSearchIndexBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeSearchIndexBenchmark.class);
+    private static final int EMPLOYEES = 1_000_000;
+    private static final int PAGE_SIZE = 21;
+    private static final String SELECT = "select e.id, e.annual_salary, e.email, e.first_name, e.last_name, "
+            + "e.last_salary_changed_date, e.payroll_id, e.salary_allowance_percentage, e.version from employee e ";
+
+    private static final String LAST_NAME_PREFIX = "lower(e.last_name) like ? escape '\\'";
+    private static final String EMAIL_DOMAIN = "reverse(lower(e.email)) like ? escape '\\'";
+    private static final String SALARY_RANGE = "e.annual_salary >= ? and e.annual_salary <= ?";
+    private static final String ALLOWANCE_PERCENTAGE_RANGE = "e.salary_allowance_percentage >= ? and e.salary_allowance_percentage <= ?";
+    private static final String SALARY_CHANGED_RANGE = "e.last_salary_changed_date >= ? and e.last_salary_changed_date <= ?";
+
+    private PostgreSQLContainer<?> postgres;
+    private Connection connection;
+    private PreparedStatement lastNamePrefix;
+    private PreparedStatement emailDomain;
+    private PreparedStatement salaryRange;
+    private PreparedStatement salaryRangeById;
+    private PreparedStatement allowancePercentageRange;
+    private PreparedStatement allowancePercentageRangeById;
+    private PreparedStatement salaryChangedRange;
+    private PreparedStatement salaryChangedRangeById;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+        postgres.start();
+        connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    create table employee (
+                        id bigint primary key,
+                        annual_salary numeric(38,2) not null,
+                        email varchar(255) not null unique,
+                        first_name varchar(255),
+                        last_name varchar(255),
+                        last_salary_changed_date timestamp(6),
+                        payroll_id varchar(255) not null unique,
+                        salary_allowance_percentage numeric(38,2) not null,
+                        version bigint default 0 not null)
+                    """);
+            statement.execute("""
+                    insert into employee
+                    select g,
+                           20000 + (g * 7919) % 100000,
+                           'employee' || g || '@company' || (g % 1000) || '.com',
+                           'First' || g,
+                           (array['Smith', 'Jones', 'Taylor', 'Brown', 'Kilan'])[1 + g % 5] || (g % 2000),
+                           timestamp '2020-01-01' + ((g * 31) % 1800) * interval '1 day',
+                           'PAY' || g,
+                           (g % 5000) / 100.0,
+                           0
+                    from generate_series(1, %d) g
+                    """.formatted(EMPLOYEES));
+            statement.execute(readIndexScript());
+            statement.execute("analyze employee");
+        }
+
+        Object[] salaries = {new BigDecimal("50000"), new BigDecimal("50100")};
+        Object[] percentages = {new BigDecimal("12.50"), new BigDecimal("12.60")};
+        Object[] changedDates = {Timestamp.valueOf(LocalDateTime.of(2022, 3, 1, 0, 0)), Timestamp.valueOf(LocalDateTime.of(2022, 3, 2, 0, 0))};
+        lastNamePrefix = prepare(new SearchQuery("last name prefix", search(LAST_NAME_PREFIX, null), "kilan123%"));
+        emailDomain = prepare(new SearchQuery("email domain", search(EMAIL_DOMAIN, null), new StringBuilder("@company42.com").reverse() + "%"));
+        salaryRange = prepare(new SearchQuery("salary range", search(SALARY_RANGE, "e.annual_salary"), salaries));
+        salaryRangeById = prepare(new SearchQuery("salary range by id", search(SALARY_RANGE, null), salaries));
+        allowancePercentageRange = prepare(new SearchQuery("allowance percentage range",
+                search(ALLOWANCE_PERCENTAGE_RANGE, "e.salary_allowance_percentage"), percentages));
+        allowancePercentageRangeById = prepare(new SearchQuery("allowance percentage range by id",
+                search(ALLOWANCE_PERCENTAGE_RANGE, null), percentages));
+        salaryChangedRange = prepare(new SearchQuery("salary changed range",
+                search(SALARY_CHANGED_RANGE, "e.last_salary_changed_date"), changedDates));
+        salaryChangedRangeById = prepare(new SearchQuery("salary changed range by id",
+                search(SALARY_CHANGED_RANGE, null), changedDates));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public void searchByLastNamePrefix(Blackhole blackhole) throws SQLException {
+        consume(lastNamePrefix, blackhole);
+    }
+
+    @Benchmark
+    public void searchByEmailDomain(Blackhole blackhole) throws SQLException {
+        consume(emailDomain, blackhole);
+    }
+
+    @Benchmark
+    public void searchBySalaryRange(Blackhole blackhole) throws SQLException {
+        consume(salaryRange, blackhole);
+    }
+
+    @Benchmark
+    public void searchBySalaryRangeSortedById(Blackhole blackhole) throws SQLException {
+        consume(salaryRangeById, blackhole);
+    }
+
+    @Benchmark
+    public void searchByAllowancePercentageRange(Blackhole blackhole) throws SQLException {
+        consume(allowancePercentageRange, blackhole);
+    }
+
+    @Benchmark
+    public void searchByAllowancePercentageRangeSortedById(Blackhole blackhole) throws SQLException {
+        consume(allowancePercentageRangeById, blackhole);
+    }
+
+    @Benchmark
+    public void searchBySalaryChangedRange(Blackhole blackhole) throws SQLException {
+        consume(salaryChangedRange, blackhole);
+    }
+
+    @Benchmark
+    public void searchBySalaryChangedRangeSortedById(Blackhole blackhole) throws SQLException {
+        consume(salaryChangedRangeById, blackhole);
+    }
+
+    /**
+     * @param sortColumn null for the default sort by id
+     */
+    private static String search(String filter, String sortColumn) {
+        return SELECT + "where " + filter + " order by " + (sortColumn == null ? "e.id" : sortColumn + ", e.id")
+                + " fetch first ? rows only";
+    }
+
+    private PreparedStatement prepare(SearchQuery query) throws SQLException {
+        explain(query);
+        PreparedStatement statement = connection.prepareStatement(query.sql());
+        bind(statement, query);
+        return statement;
+    }
+
+    private void explain(SearchQuery query) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (PreparedStatement explain = connection.prepareStatement("explain (analyze, buffers) " + query.sql())) {
+            bind(explain, query);
+            try (ResultSet resultSet = explain.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+        }
+        log.info("Plan for {} search:\n{}", query.name(), plan);
+        if (plan.indexOf("Seq Scan") >= 0) {
+            throw new IllegalStateException("The " + query.name() + " search does not use an index:\n" + plan);
+        }
+    }
+
+    private static void bind(PreparedStatement statement, SearchQuery query) throws SQLException {
+        for (int i = 0; i < query.parameters().length; i++) {
+            statement.setObject(i + 1, query.parameters()[i]);
+        }
+        statement.setInt(query.parameters().length + 1, PAGE_SIZE);
+    }
+
+    private static void consume(PreparedStatement statement, Blackhole blackhole) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getLong(1));
+            }
+        }
+    }
+
+    private static String readIndexScript() throws IOException {
+        try (InputStream script = EmployeeSearchIndexBenchmark.class.getResourceAsStream("/db/employee-indexes.sql")) {
+            return new String(script.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private record SearchQuery(String name, String sql, Object... parameters) {
+    }
+}
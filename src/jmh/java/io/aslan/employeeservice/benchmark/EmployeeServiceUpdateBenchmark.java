@@ -0,0 +1,108 @@
+package io.aslan.employeeservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.aslan.employeeservice.config.ReadYourWritesGuard;
+import io.aslan.employeeservice.domain.dto.EmployeeRequestDTO;
+import io.aslan.employeeservice.domain.dto.EmployeeResponseDTO;
+import io.aslan.employeeservice.domain.entity.Employee;
+import io.aslan.employeeservice.service.AllowanceSummaryService;
+import io.aslan.employeeservice.service.EmployeeService;
+import io.aslan.employeeservice.service.NotificationService;
+import io.aslan.employeeservice.service.SalaryHistoryWriter;
+import io.aslan.employeeservice.util.AllowanceCalculator;
+import io.aslan.employeeservice.util.EmployeeCursorCodec;
+import io.aslan.employeeservice.util.EmployeeMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The whole {@link EmployeeService#updateEmployee} path (lookup, two allowance calculations, entity update,
+ * outbox payload serialization and response mapping) against in-memory repositories, so the numbers show the
+ * CPU and allocation cost of the service itself rather than database latency. The requests alternate between
+ * two salaries so every call changes the allowance and queues a notification. Salary history is queued on the
+ * real {@link SalaryHistoryWriter}, whose background inserts are discarded, and so are the allowance summary
+ * increments.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EmployeeServiceUpdateBenchmark {
+
+    private static final long EMPLOYEE_ID = 1L;
+
+    private EmployeeService employeeService;
+    private SalaryHistoryWriter salaryHistoryWriter;
+    private EmployeeRequestDTO raise;
+    private EmployeeRequestDTO cut;
+    private boolean nextIsRaise;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .build();
+
+        Map<Long, Employee> employees = new HashMap<>();
+        employees.put(EMPLOYEE_ID, BenchmarkData.employee(EMPLOYEE_ID));
+
+        salaryHistoryWriter = new SalaryHistoryWriter(new DiscardingJdbcTemplate(), new SimpleMeterRegistry(), 10_000, 500);
+        salaryHistoryWriter.start();
+
+        employeeService = new EmployeeService(
+                InMemoryRepositories.employeeRepository(employees),
+                new EmployeeMapper(),
+                new NotificationService(InMemoryRepositories.allowanceOutboxRepository(), objectMapper,
+                        new SimpleMeterRegistry(), Duration.ZERO),
+                new AllowanceCalculator(),
+                new EmployeeCursorCodec(objectMapper),
+                new ReadYourWritesGuard(Duration.ZERO),
+                salaryHistoryWriter,
+                new AllowanceSummaryService(new DiscardingJdbcTemplate(), InMemoryRepositories.allowanceBandSummaryRepository(),
+                        new AllowanceCalculator(), BigDecimal.TEN),
+                new ConcurrentMapCacheManager(),
+                new SimpleMeterRegistry());
+
+        raise = BenchmarkData.request("50000.00", "12.50");
+        cut = BenchmarkData.request("45678.90", "12.50");
+    }
+
+    @TearDown
+    public void tearDown() {
+        salaryHistoryWriter.stop();
+    }
+
+    @Benchmark
+    public EmployeeResponseDTO updateEmployee() {
+        nextIsRaise = !nextIsRaise;
+        return employeeService.updateEmployee(EMPLOYEE_ID, null, nextIsRaise ? raise : cut);
+    }
+
+    private static class DiscardingJdbcTemplate extends JdbcTemplate {
+
+        @Override
+        public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                       ParameterizedPreparedStatementSetter<T> pss) {
+            return new int[0][];
+        }
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            return new int[batchArgs.size()];
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package io.aslan.employeeservice.benchmark;
+
+import io.aslan.employeeservice.domain.entity.Employee;
+import io.aslan.employeeservice.repository.AllowanceBandSummaryRepository;
+import io.aslan.employeeservice.repository.AllowanceOutboxRepository;
+import io.aslan.employeeservice.repository.EmployeeRepository;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+/**
+ * Map-backed stand-ins for the Spring Data repositories, implementing only the methods the benchmarked
+ * code paths call.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static EmployeeRepository employeeRepository(Map<Long, Employee> employees) {
+        return proxy(EmployeeRepository.class, (method, args) -> switch (method.getName()) {
+            case "findOneById", "findById" -> Optional.ofNullable(employees.get((Long) args[0]));
+            case "save", "saveAndFlush" -> {
+                Employee employee = (Employee) args[0];
+                employees.put(employee.getId(), employee);
+                yield employee;
+            }
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    static AllowanceOutboxRepository allowanceOutboxRepository() {
+        return proxy(AllowanceOutboxRepository.class, (method, args) -> switch (method.getName()) {
+            case "save" -> args[0];
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    static AllowanceBandSummaryRepository allowanceBandSummaryRepository() {
+        return proxy(AllowanceBandSummaryRepository.class, (method, args) -> {
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, BiFunction<Method, Object[], Object> handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> "InMemory" + type.getSimpleName();
+                };
+            }
+            return handler.apply(method, args);
+        }));
+    }
+}
@@ -0,0 +1,45 @@
+package io.aslan.employeeservice.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.aslan.employeeservice.domain.dto.EmployeeResponseDTO;
+import io.aslan.employeeservice.domain.message.AllowanceUpdateMessage;
+import io.aslan.employeeservice.util.EmployeeMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .build();
+
+    private AllowanceUpdateMessage allowanceUpdateMessage;
+    private EmployeeResponseDTO employeeResponse;
+
+    @Setup
+    public void setUp() {
+        allowanceUpdateMessage = new AllowanceUpdateMessage(1L, "David", "Kilan",
+                new BigDecimal("475.82"), new BigDecimal("523.40"), "david.kilan@example.com");
+        employeeResponse = new EmployeeMapper().map(BenchmarkData.employee(1L));
+    }
+
+    @Benchmark
+    public String serializeAllowanceUpdateMessage() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(allowanceUpdateMessage);
+    }
+
+    @Benchmark
+    public String serializeEmployeeResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(employeeResponse);
+    }
+}
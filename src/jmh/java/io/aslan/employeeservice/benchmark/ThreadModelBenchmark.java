@@ -0,0 +1,102 @@
+package io.aslan.employeeservice.benchmark;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares Tomcat's default platform thread pool (200 threads) with virtual threads for a burst of concurrent
+ * requests shaped like an employee update: a short query on a bounded Hikari pool followed by a blocking call to
+ * a downstream service (SQS) made without holding a connection. Each invocation completes {@code concurrency}
+ * requests, so a lower time per operation means more throughput.
+ * <p>
+ * This is a stand-in that leaves out Tomcat, Hibernate and the service code; compare the thread models on the
+ * whole service with {@code EmployeeLoadTest} and {@code -Dloadtest.virtual-threads}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ThreadModelBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int HIKARI_POOL_SIZE = 10;
+
+    @Param({"platform", "virtual"})
+    private String threadModel;
+
+    @Param({"1000", "5000"})
+    private int concurrency;
+
+    @Param({"20"})
+    private int downstreamMillis;
+
+    private PostgreSQLContainer<?> postgres;
+    private HikariDataSource dataSource;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+        postgres.start();
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(postgres.getJdbcUrl());
+        config.setUsername(postgres.getUsername());
+        config.setPassword(postgres.getPassword());
+        config.setMaximumPoolSize(HIKARI_POOL_SIZE);
+        config.setConnectionTimeout(TimeUnit.MINUTES.toMillis(1));
+        dataSource = new HikariDataSource(config);
+
+        executor = "virtual".equals(threadModel)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        dataSource.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public long handleConcurrentRequests() throws Exception {
+        List<Future<Long>> requests = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            requests.add(executor.submit(this::handleRequest));
+        }
+        long total = 0;
+        for (Future<Long> request : requests) {
+            total += request.get();
+        }
+        return total;
+    }
+
+    private long handleRequest() throws Exception {
+        long value;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select 1")) {
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                value = resultSet.getLong(1);
+            }
+        }
+        Thread.sleep(downstreamMillis);
+        return value;
+    }
+}
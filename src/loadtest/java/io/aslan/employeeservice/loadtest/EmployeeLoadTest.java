@@ -0,0 +1,337 @@
+package io.aslan.employeeservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.localstack.LocalStackContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.CreateQueueRequest;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesRequest;
+import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.testcontainers.containers.localstack.LocalStackContainer.Service.SQS;
+
+/**
+ * Runs a mixed CRUD workload against the whole service (Tomcat, Postgres, the outbox relay and SQS in LocalStack)
+ * with {@code loadtest.concurrency} closed-loop clients, and reports throughput, latency, errors and queue depth.
+ * With {@code -Dloadtest.baseline=<file>} the run fails if it is worse than that baseline by more than
+ * {@code loadtest.tolerance}; add {@code -Dloadtest.update-baseline=true} to record the baseline instead.
+ * {@code -Dloadtest.virtual-threads=true} runs the service on virtual threads, so a platform thread baseline can be
+ * compared with a virtual thread run of the same workload.
+ * <p>
+ * Reads and updates go to the seeded employees, deletes only remove employees the test created itself, so no
+ * operation fails because another one got there first.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.jpa.show-sql=false")
+@Testcontainers
+class EmployeeLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeLoadTest.class);
+    private static final LoadTestSettings SETTINGS = LoadTestSettings.fromSystemProperties();
+
+    private static SqsClient sqsClient;
+    private static String notificationServiceQueueUrl;
+
+    @Container
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+
+    @Container
+    static LocalStackContainer localStackContainer = new LocalStackContainer(DockerImageName.parse("localstack/localstack:3.5.0"));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Queue<Long> createdIds = new ConcurrentLinkedQueue<>();
+    private long[] seededIds;
+
+    @DynamicPropertySource
+    static void dataSourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        registry.add("spring.threads.virtual.enabled", SETTINGS::virtualThreads);
+
+        registry.add("spring.cloud.aws.region.static", () -> localStackContainer.getRegion());
+        registry.add("spring.cloud.aws.credentials.access-key", () -> localStackContainer.getAccessKey());
+        registry.add("spring.cloud.aws.credentials.secret-key", () -> localStackContainer.getSecretKey());
+        registry.add("spring.cloud.aws.sqs.endpoint", () -> localStackContainer.getEndpointOverride(SQS)
+                .toString());
+
+        sqsClient = SqsClient.builder()
+                .region(Region.of(localStackContainer.getRegion()))
+                .endpointOverride(localStackContainer.getEndpointOverride(SQS))
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(localStackContainer.getAccessKey(), localStackContainer.getSecretKey())
+                ))
+                .build();
+        notificationServiceQueueUrl = sqsClient.createQueue(CreateQueueRequest.builder()
+                .queueName("notification-service-queue")
+                .build()).queueUrl();
+        registry.add("notification.service.queue.url", () -> notificationServiceQueueUrl);
+    }
+
+    @Test
+    void runMixedWorkload() throws Exception {
+        seed();
+        LoadTestReport report = run();
+
+        Files.createDirectories(SETTINGS.reportDirectory());
+        objectMapper.writeValue(SETTINGS.reportDirectory().resolve("report.json").toFile(), report);
+        log.info("Load test report:\n{}", report.toTable());
+
+        if (SETTINGS.baseline() == null) {
+            return;
+        }
+        if (SETTINGS.updateBaseline()) {
+            objectMapper.writeValue(SETTINGS.baseline().toFile(), report);
+            log.info("Stored the report as the baseline in {}", SETTINGS.baseline());
+            return;
+        }
+        LoadTestReport baseline = objectMapper.readValue(SETTINGS.baseline().toFile(), LoadTestReport.class);
+        assertThat(report.regressionsAgainst(baseline, SETTINGS.tolerance()))
+                .as("regressions against %s", SETTINGS.baseline())
+                .isEmpty();
+    }
+
+    private void seed() {
+        long start = System.nanoTime();
+        jdbcTemplate.update("""
+                insert into employee (id, first_name, last_name, email, payroll_id, annual_salary,
+                                      salary_allowance_percentage, last_salary_changed_date, version)
+                select g, 'First' || g, 'Last' || (g % 1000), 'seed' || g || '@example.com', 'SEED' || g,
+                       20000 + g % 100000, g % 50, now(), 0
+                from generate_series(1, ?) g""", SETTINGS.seedEmployees());
+        // keep the ids Hibernate's pooled generator hands out clear of the seeded ones
+        jdbcTemplate.queryForObject("select setval('employee_seq', ? + 50)", Long.class, SETTINGS.seedEmployees());
+        jdbcTemplate.execute("analyze employee");
+        seededIds = jdbcTemplate.queryForList("select id from employee", Long.class).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+        log.info("Seeded {} employees in {}ms", seededIds.length, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private LoadTestReport run() throws Exception {
+        Map<Operation, OperationRecorder> recorders = new EnumMap<>(Operation.class);
+        SETTINGS.mix().keySet().forEach(operation -> recorders.put(operation, new OperationRecorder()));
+        Operation[] weighted = weightedOperations();
+
+        Instant startedAt = Instant.now();
+        long measureFrom = System.nanoTime() + SETTINGS.warmup().toNanos();
+        long measureUntil = measureFrom + SETTINGS.duration().toNanos();
+        QueueDepthSampler sampler = new QueueDepthSampler();
+        double sentBefore = 0;
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+             ScheduledExecutorService sampling = Executors.newSingleThreadScheduledExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(SETTINGS.concurrency());
+            for (int i = 0; i < SETTINGS.concurrency(); i++) {
+                futures.add(workers.submit(() -> {
+                    while (true) {
+                        long requestStart = System.nanoTime();
+                        if (requestStart >= measureUntil) {
+                            return null;
+                        }
+                        Operation operation = weighted[ThreadLocalRandom.current().nextInt(weighted.length)];
+                        int status = execute(operation);
+                        long requestEnd = System.nanoTime();
+                        if (requestStart >= measureFrom && requestEnd <= measureUntil) {
+                            recorders.get(operation).record(requestEnd - requestStart, status);
+                        }
+                    }
+                }));
+            }
+
+            TimeUnit.NANOSECONDS.sleep(measureFrom - System.nanoTime());
+            sentBefore = messagesSent();
+            sampling.scheduleAtFixedRate(sampler::sample, 0, 1, TimeUnit.SECONDS);
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        double sentAfter = messagesSent();
+        sampler.sample();
+
+        double durationSeconds = SETTINGS.duration().toMillis() / 1000.0;
+        Map<Operation, LoadTestReport.OperationReport> operations = new EnumMap<>(Operation.class);
+        recorders.forEach((operation, recorder) -> operations.put(operation, recorder.toReport(durationSeconds)));
+        long requests = operations.values().stream().mapToLong(LoadTestReport.OperationReport::requests).sum();
+        long errors = operations.values().stream().mapToLong(LoadTestReport.OperationReport::errors).sum();
+        long shed = operations.values().stream().mapToLong(LoadTestReport.OperationReport::shed).sum();
+
+        return new LoadTestReport(startedAt, SETTINGS.concurrency(), SETTINGS.virtualThreads(), durationSeconds,
+                SETTINGS.seedEmployees(),
+                requests,
+                requests / durationSeconds,
+                requests == 0 ? 0 : (double) errors / requests,
+                requests == 0 ? 0 : (double) shed / requests,
+                operations,
+                new LoadTestReport.QueueReport((sentAfter - sentBefore) / durationSeconds,
+                        sampler.maxOutboxDepth.get(), sampler.outboxDepth,
+                        sampler.maxQueueDepth.get(), sampler.queueDepth));
+    }
+
+    private Operation[] weightedOperations() {
+        List<Operation> weighted = new ArrayList<>();
+        SETTINGS.mix().forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        });
+        return weighted.toArray(Operation[]::new);
+    }
+
+    /**
+     * @return the HTTP status, or -1 if the request failed without one
+     */
+    private int execute(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        HttpRequest request = switch (operation) {
+            case GET -> get("/api/v1/employee/" + randomSeededId());
+            case LIST -> get("/api/v1/employee?page=" + random.nextInt(50) + "&size=20");
+            case SEARCH -> get("/api/v1/employee/search?lastNamePrefix=Last" + random.nextInt(100) + "&size=20");
+            case CREATE -> send("POST", "/api/v1/employee", employee("LOAD-" + UUID.randomUUID()));
+            case UPDATE -> {
+                long id = randomSeededId();
+                yield send("PUT", "/api/v1/employee/" + id, employee("SEED" + id));
+            }
+            case DELETE -> {
+                Long id = createdIds.poll();
+                // nothing of our own to delete yet, create something instead
+                yield id == null
+                        ? send("POST", "/api/v1/employee", employee("LOAD-" + UUID.randomUUID()))
+                        : send("DELETE", "/api/v1/employee/" + id, null);
+            }
+        };
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 201) {
+                createdIds.add(objectMapper.readTree(response.body()).get("id").asLong());
+            }
+            return response.statusCode();
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.debug("{} request failed", operation, e);
+            return -1;
+        }
+    }
+
+    private long randomSeededId() {
+        return seededIds[ThreadLocalRandom.current().nextInt(seededIds.length)];
+    }
+
+    private String employee(String payrollId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            return objectMapper.writeValueAsString(Map.of(
+                    "firstName", "Load",
+                    "lastName", "Last" + random.nextInt(1000),
+                    "email", payrollId.toLowerCase() + "@example.com",
+                    "payrollId", payrollId,
+                    "annualSalary", 20000 + random.nextInt(100_000),
+                    "salaryAllowancePercentage", random.nextInt(50)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private HttpRequest send(String method, String path, String body) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .header("X-Retry-On-Conflict", "true")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private double messagesSent() {
+        return meterRegistry.get("notification.outbox.sent").counter().count();
+    }
+
+    /**
+     * Polls how many allowance messages wait in the outbox and how many have reached the notification queue.
+     */
+    private class QueueDepthSampler {
+
+        private final AtomicLong maxOutboxDepth = new AtomicLong();
+        private final AtomicLong maxQueueDepth = new AtomicLong();
+        private volatile long outboxDepth;
+        private volatile long queueDepth;
+
+        void sample() {
+            try {
+                outboxDepth = jdbcTemplate.queryForObject("select count(*) from allowance_outbox", Long.class);
+                queueDepth = Long.parseLong(sqsClient.getQueueAttributes(GetQueueAttributesRequest.builder()
+                        .queueUrl(notificationServiceQueueUrl)
+                        .attributeNames(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES)
+                        .build()).attributes().get(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES));
+                maxOutboxDepth.accumulateAndGet(outboxDepth, Math::max);
+                maxQueueDepth.accumulateAndGet(queueDepth, Math::max);
+            } catch (RuntimeException e) {
+                log.warn("Failed to sample queue depth", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package io.aslan.employeeservice.loadtest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The result of a load test run, written as JSON so it can be stored as a baseline and compared with later runs.
+ *
+ * @param virtualThreads whether the service handled requests on virtual threads rather than Tomcat's platform pool
+ * @param shedRate       share of requests rejected with 503 by the concurrency limiter, these are not errors
+ */
+record LoadTestReport(Instant startedAt,
+                      int concurrency,
+                      boolean virtualThreads,
+                      double durationSeconds,
+                      int seedEmployees,
+                      long requests,
+                      double throughput,
+                      double errorRate,
+                      double shedRate,
+                      Map<Operation, OperationReport> operations,
+                      QueueReport queue) {
+
+    record OperationReport(long requests,
+                           long errors,
+                           long shed,
+                           double throughput,
+                           double p50Ms,
+                           double p90Ms,
+                           double p99Ms,
+                           double p999Ms,
+                           double maxMs,
+                           Map<String, Long> latencyHistogram) {
+    }
+
+    /**
+     * @param outboxDepth allowance messages waiting in the outbox table, i.e. not yet sent to SQS
+     * @param queueDepth  messages in the notification SQS queue, which has no consumer during the test
+     */
+    record QueueReport(double messagesSentPerSecond,
+                       long maxOutboxDepth,
+                       long finalOutboxDepth,
+                       long maxQueueDepth,
+                       long finalQueueDepth) {
+    }
+
+    /**
+     * @param tolerance e.g. 0.15 allows 15% less throughput and 15% higher p99 latency than the baseline
+     * @return what got worse, empty if nothing did
+     */
+    List<String> regressionsAgainst(LoadTestReport baseline, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        if (throughput < baseline.throughput() * (1 - tolerance)) {
+            regressions.add(String.format("throughput %.1f req/s is below the baseline %.1f req/s", throughput, baseline.throughput()));
+        }
+        if (errorRate > baseline.errorRate() + 0.01) {
+            regressions.add(String.format("error rate %.2f%% is above the baseline %.2f%%", errorRate * 100, baseline.errorRate() * 100));
+        }
+        if (queue.messagesSentPerSecond() < baseline.queue().messagesSentPerSecond() * (1 - tolerance)) {
+            regressions.add(String.format("SQS throughput %.1f msg/s is below the baseline %.1f msg/s",
+                    queue.messagesSentPerSecond(), baseline.queue().messagesSentPerSecond()));
+        }
+        operations.forEach((operation, report) -> {
+            OperationReport baselineReport = baseline.operations().get(operation);
+            if (baselineReport != null && report.p99Ms() > baselineReport.p99Ms() * (1 + tolerance)) {
+                regressions.add(String.format("%s p99 %.1fms is above the baseline %.1fms", operation, report.p99Ms(), baselineReport.p99Ms()));
+            }
+        });
+        return regressions;
+    }
+
+    String toTable() {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("%d workers for %.0fs on %d employees, %s threads: %.1f req/s, %.2f%% errors, %.2f%% shed%n",
+                concurrency, durationSeconds, seedEmployees, virtualThreads ? "virtual" : "platform",
+                throughput, errorRate * 100, shedRate * 100));
+        table.append(String.format("%-8s %10s %10s %8s %8s %10s %10s %10s %10s %10s%n",
+                "", "requests", "req/s", "errors", "shed", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        operations.forEach((operation, report) -> table.append(String.format(
+                "%-8s %10d %10.1f %8d %8d %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+                operation, report.requests(), report.throughput(), report.errors(), report.shed(),
+                report.p50Ms(), report.p90Ms(), report.p99Ms(), report.p999Ms(), report.maxMs())));
+        table.append(String.format("SQS: %.1f msg/s sent, outbox depth max %d / final %d, queue depth max %d / final %d%n",
+                queue.messagesSentPerSecond(), queue.maxOutboxDepth(), queue.finalOutboxDepth(),
+                queue.maxQueueDepth(), queue.finalQueueDepth()));
+        return table.toString();
+    }
+}
@@ -0,0 +1,52 @@
+package io.aslan.employeeservice.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load test parameters, passed as {@code -Dloadtest.*} system properties (defaults in the {@code load-test}
+ * profile of the pom).
+ */
+record LoadTestSettings(int concurrency,
+                        boolean virtualThreads,
+                        Duration warmup,
+                        Duration duration,
+                        int seedEmployees,
+                        Map<Operation, Integer> mix,
+                        Path reportDirectory,
+                        Path baseline,
+                        boolean updateBaseline,
+                        double tolerance) {
+
+    static LoadTestSettings fromSystemProperties() {
+        String baseline = System.getProperty("loadtest.baseline", "");
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.concurrency", 50),
+                Boolean.getBoolean("loadtest.virtual-threads"),
+                Duration.parse("PT" + System.getProperty("loadtest.warmup", "10s")),
+                Duration.parse("PT" + System.getProperty("loadtest.duration", "60s")),
+                Integer.getInteger("loadtest.seed-employees", 100_000),
+                parseMix(System.getProperty("loadtest.mix", "get:60,list:10,search:5,create:10,update:10,delete:5")),
+                Path.of(System.getProperty("loadtest.report-directory", "target/load-test")),
+                baseline.isBlank() ? null : Path.of(baseline),
+                Boolean.getBoolean("loadtest.update-baseline"),
+                Double.parseDouble(System.getProperty("loadtest.tolerance", "0.15")));
+    }
+
+    /**
+     * @param mix e.g. {@code get:60,update:40}, weights don't need to add up to 100
+     */
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight but got '" + entry + "'");
+            }
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
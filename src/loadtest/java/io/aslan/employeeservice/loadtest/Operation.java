@@ -0,0 +1,10 @@
+package io.aslan.employeeservice.loadtest;
+
+enum Operation {
+    GET,
+    LIST,
+    SEARCH,
+    CREATE,
+    UPDATE,
+    DELETE
+}
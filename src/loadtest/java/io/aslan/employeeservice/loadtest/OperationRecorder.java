@@ -0,0 +1,58 @@
+package io.aslan.employeeservice.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and outcomes of one operation, recorded from all load generator threads.
+ */
+class OperationRecorder {
+
+    private static final long[] BUCKET_UPPER_BOUNDS_MS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000};
+
+    private final Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(5), 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+
+    void record(long latencyNanos, int status) {
+        latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), latencies.getHighestTrackableValue()));
+        if (status == 503) {
+            shed.increment();
+        } else if (status >= 500 || status < 0) {
+            errors.increment();
+        }
+    }
+
+    LoadTestReport.OperationReport toReport(double durationSeconds) {
+        Histogram snapshot = latencies.copy();
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        long below = 0;
+        for (long upperBound : BUCKET_UPPER_BOUNDS_MS) {
+            long count = snapshot.getCountBetweenValues(0, TimeUnit.MILLISECONDS.toMicros(upperBound));
+            buckets.put("<=" + upperBound + "ms", count - below);
+            below = count;
+        }
+        buckets.put(">" + BUCKET_UPPER_BOUNDS_MS[BUCKET_UPPER_BOUNDS_MS.length - 1] + "ms", snapshot.getTotalCount() - below);
+
+        return new LoadTestReport.OperationReport(
+                snapshot.getTotalCount(),
+                errors.sum(),
+                shed.sum(),
+                snapshot.getTotalCount() / durationSeconds,
+                millis(snapshot.getValueAtPercentile(50)),
+                millis(snapshot.getValueAtPercentile(90)),
+                millis(snapshot.getValueAtPercentile(99)),
+                millis(snapshot.getValueAtPercentile(99.9)),
+                millis(snapshot.getMaxValue()),
+                buckets);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
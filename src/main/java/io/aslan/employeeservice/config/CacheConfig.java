@@ -0,0 +1,19 @@
+package io.aslan.employeeservice.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * The cache backend, its size and TTL come from {@code spring.cache.*}, so a multi-node deployment can switch
+ * to a distributed cache through configuration. Caching advice runs outside the transaction advice, so an
+ * eviction only happens once the change is committed.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    public static final String EMPLOYEES_CACHE = "employees";
+    public static final String EMPLOYEE_IDS_BY_PAYROLL_ID_CACHE = "employeeIdsByPayrollId";
+    public static final String EMPLOYEE_IDS_BY_EMAIL_CACHE = "employeeIdsByEmail";
+}
@@ -0,0 +1,41 @@
+package io.aslan.employeeservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.aslan.employeeservice.controller.ConcurrencyLimitFilter;
+import io.aslan.employeeservice.util.AdaptiveConcurrencyLimit;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "employee.concurrency-limit.enabled", havingValue = "true")
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${employee.concurrency-limit.read.initial-limit}") int readInitialLimit,
+            @Value("${employee.concurrency-limit.read.min-limit}") int readMinLimit,
+            @Value("${employee.concurrency-limit.read.max-limit}") int readMaxLimit,
+            @Value("${employee.concurrency-limit.write.initial-limit}") int writeInitialLimit,
+            @Value("${employee.concurrency-limit.write.min-limit}") int writeMinLimit,
+            @Value("${employee.concurrency-limit.write.max-limit}") int writeMaxLimit,
+            @Value("${employee.concurrency-limit.rtt-tolerance}") double rttTolerance,
+            @Value("${employee.concurrency-limit.retry-after}") Duration retryAfter) {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(
+                new AdaptiveConcurrencyLimit(readInitialLimit, readMinLimit, readMaxLimit, rttTolerance),
+                new AdaptiveConcurrencyLimit(writeInitialLimit, writeMinLimit, writeMaxLimit, rttTolerance),
+                retryAfter,
+                objectMapper,
+                meterRegistry);
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/v1/employee", "/api/v1/employee/*");
+        return registration;
+    }
+}
@@ -0,0 +1,72 @@
+package io.aslan.employeeservice.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Remembers which employees were written on this node in the last {@code employee.datasource.read-your-writes-window}
+ * so that reading them again goes to the primary instead of a replica that may not have caught up yet. Size the window
+ * above the expected replication lag; zero turns the guard off.
+ */
+@Component
+public class ReadYourWritesGuard {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final Map<Long, Boolean> recentWrites;
+
+    public ReadYourWritesGuard(@Value("${employee.datasource.read-your-writes-window}") Duration window) {
+        this.recentWrites = window.isZero()
+                ? null
+                : Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .<Long, Boolean>build()
+                .asMap();
+    }
+
+    /**
+     * Starts the window for the employee once the current transaction commits, or right away without one.
+     */
+    public void recordWrite(Long employeeId) {
+        if (recentWrites == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentWrites.put(employeeId, Boolean.TRUE);
+                }
+            });
+        } else {
+            recentWrites.put(employeeId, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Runs {@code read} against the primary if the employee was written recently. Must be called before the
+     * transaction's first statement, which is when the routing data source picks the connection.
+     */
+    public <T> T read(Long employeeId, Supplier<T> read) {
+        if (recentWrites == null || !recentWrites.containsKey(employeeId) || isPrimaryRequired()) {
+            return read.get();
+        }
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            PRIMARY_REQUIRED.remove();
+        }
+    }
+
+    static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+}
@@ -0,0 +1,70 @@
+package io.aslan.employeeservice.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+
+/**
+ * Only active when {@code employee.datasource.replica-urls} lists at least one replica. Replicas share the
+ * primary's credentials and pool size and are registered with Micrometer as {@code <pool-name>-replica-<n>}.
+ */
+@Configuration
+@ConditionalOnExpression("!'${employee.datasource.replica-urls:}'.isBlank()")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties properties,
+                                                             MeterRegistry meterRegistry,
+                                                             @Value("${employee.datasource.replica-urls}") List<String> replicaUrls,
+                                                             @Value("${employee.datasource.replica-selection}") ReplicaSelection selection,
+                                                             @Value("${employee.datasource.replica-connection-timeout}") Duration connectionTimeout,
+                                                             @Value("${employee.datasource.replica-retry-interval}") Duration retryInterval) {
+        List<HikariDataSource> replicas = new ArrayList<>(replicaUrls.size());
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName(primaryDataSource.getPoolName() + "-replica-" + (i + 1));
+            config.setJdbcUrl(replicaUrls.get(i).trim());
+            config.setUsername(properties.determineUsername());
+            config.setPassword(properties.determinePassword());
+            config.setDriverClassName(properties.determineDriverClassName());
+            config.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+            config.setConnectionTimeout(connectionTimeout.toMillis());
+            config.setReadOnly(true);
+            // start even if the replica is down, reads fall back to the primary until it is back
+            config.setInitializationFailTimeout(-1);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, selection, retryInterval, Clock.systemUTC());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
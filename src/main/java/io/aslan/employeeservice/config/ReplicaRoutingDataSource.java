@@ -0,0 +1,175 @@
+package io.aslan.employeeservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the primary. Must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, so the connection is only fetched
+ * once the transaction's read-only flag is known.
+ * <p>
+ * A replica that fails to hand out a connection is skipped for {@code retryInterval} and the transaction falls
+ * back to the primary, as do reads guarded by {@link ReadYourWritesGuard}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReplicaSelection selection;
+    private final Duration retryInterval;
+    private final Clock clock;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    List<? extends DataSource> replicas,
+                                    ReplicaSelection selection,
+                                    Duration retryInterval,
+                                    Clock clock) {
+        this.primary = primary;
+        this.selection = selection;
+        this.retryInterval = retryInterval;
+        this.clock = clock;
+
+        this.replicas = new ArrayList<>(replicas.size());
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = new Replica("replica-" + (i + 1), replicas.get(i));
+            this.replicas.add(replica);
+            targets.put(replica.key, replica.dataSource);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Replica replica = selectReplica();
+        return replica == null ? PRIMARY : replica.key;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = selectReplica();
+        if (replica != null) {
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Replica replica = selectReplica();
+        if (replica != null) {
+            try {
+                return replica.dataSource.getConnection(username, password);
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close {}", replica.key, e);
+                }
+            }
+        }
+    }
+
+    private Replica selectReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReadYourWritesGuard.isPrimaryRequired()) {
+            return null;
+        }
+        Instant now = clock.instant();
+        return switch (selection) {
+            case ROUND_ROBIN -> selectRoundRobin(now);
+            case LEAST_BUSY -> selectLeastBusy(now);
+        };
+    }
+
+    private Replica selectRoundRobin(Instant now) {
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.isUp(now)) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private Replica selectLeastBusy(Instant now) {
+        Replica leastBusy = null;
+        int fewestActive = Integer.MAX_VALUE;
+        for (Replica replica : replicas) {
+            int active = activeConnections(replica.dataSource);
+            if (replica.isUp(now) && active < fewestActive) {
+                leastBusy = replica;
+                fewestActive = active;
+            }
+        }
+        return leastBusy;
+    }
+
+    private void markDown(Replica replica, SQLException e) {
+        replica.downUntil = clock.instant().plus(retryInterval);
+        log.warn("Could not connect to {}, reading from the primary for the next {}", replica.key, retryInterval, e);
+    }
+
+    private static int activeConnections(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikariDataSource) {
+            HikariPoolMXBean pool = hikariDataSource.getHikariPoolMXBean();
+            return pool == null ? 0 : pool.getActiveConnections();
+        }
+        return 0;
+    }
+
+    private static final class Replica {
+
+        private final String key;
+        private final DataSource dataSource;
+        private volatile Instant downUntil = Instant.MIN;
+
+        private Replica(String key, DataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+
+        private boolean isUp(Instant now) {
+            return !now.isBefore(downUntil);
+        }
+    }
+}
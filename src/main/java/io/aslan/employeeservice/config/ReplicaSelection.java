@@ -0,0 +1,11 @@
+package io.aslan.employeeservice.config;
+
+public enum ReplicaSelection {
+
+    ROUND_ROBIN,
+
+    /**
+     * The replica with the fewest connections in use.
+     */
+    LEAST_BUSY
+}
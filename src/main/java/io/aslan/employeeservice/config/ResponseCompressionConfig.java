@@ -0,0 +1,38 @@
+package io.aslan.employeeservice.config;
+
+import io.aslan.employeeservice.controller.ResponseCompression;
+import io.aslan.employeeservice.controller.ResponseCompressionFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Arrays;
+
+/**
+ * Compresses employee API responses in the application rather than with {@code server.compression}, which is
+ * left off, so the bytes saved can be measured.
+ */
+@Configuration
+public class ResponseCompressionConfig {
+
+    @Bean
+    public ResponseCompression responseCompression(MeterRegistry meterRegistry,
+                                                   @Value("${employee.compression.enabled}") boolean enabled,
+                                                   @Value("${employee.compression.min-response-size}") DataSize minResponseSize,
+                                                   @Value("${employee.compression.mime-types}") String[] mimeTypes) {
+        return new ResponseCompression(enabled, (int) minResponseSize.toBytes(),
+                Arrays.stream(mimeTypes).map(MediaType::parseMediaType).toList(), meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ResponseCompressionFilter> responseCompressionFilter(ResponseCompression responseCompression) {
+        FilterRegistrationBean<ResponseCompressionFilter> registration =
+                new FilterRegistrationBean<>(new ResponseCompressionFilter(responseCompression));
+        registration.addUrlPatterns("/api/v1/employee", "/api/v1/employee/*");
+        return registration;
+    }
+}
@@ -0,0 +1,24 @@
+package io.aslan.employeeservice.controller;
+
+import io.aslan.employeeservice.domain.dto.AllowanceSummaryDTO;
+import io.aslan.employeeservice.service.AllowanceSummaryService;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/employee")
+public class AllowanceSummaryController {
+
+    private final AllowanceSummaryService allowanceSummaryService;
+
+    public AllowanceSummaryController(AllowanceSummaryService allowanceSummaryService) {
+        this.allowanceSummaryService = allowanceSummaryService;
+    }
+
+    /**
+     * Headcount, annual salaries and monthly allowances in total and per allowance percentage band.
+     */
+    @GetMapping("/allowance-summary")
+    public AllowanceSummaryDTO getSummary() {
+        return allowanceSummaryService.getSummary();
+    }
+}
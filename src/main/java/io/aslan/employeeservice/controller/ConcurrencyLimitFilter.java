@@ -0,0 +1,113 @@
+package io.aslan.employeeservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.aslan.employeeservice.util.AdaptiveConcurrencyLimit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Sheds load before it reaches the controllers. Reads (GET/HEAD and the batch-get POST) and writes each have their
+ * own {@link AdaptiveConcurrencyLimit}, so a burst of slow writes can't starve the cheap lookups. A request over its
+ * limit gets an immediate 503 with {@code Retry-After} instead of queueing for a database connection.
+ * <p>
+ * Export and bulk import are long-running streams that would distort the latency samples, so they are not limited.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private final AdaptiveConcurrencyLimit readLimit;
+    private final AdaptiveConcurrencyLimit writeLimit;
+    private final Duration retryAfter;
+    private final ObjectMapper objectMapper;
+    private final Counter readRejectedCounter;
+    private final Counter writeRejectedCounter;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimit readLimit,
+                                  AdaptiveConcurrencyLimit writeLimit,
+                                  Duration retryAfter,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        this.readLimit = readLimit;
+        this.writeLimit = writeLimit;
+        this.retryAfter = retryAfter;
+        this.objectMapper = objectMapper;
+        this.readRejectedCounter = registerMetrics(meterRegistry, "read", readLimit);
+        this.writeRejectedCounter = registerMetrics(meterRegistry, "write", writeLimit);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return path.endsWith("/export") || path.endsWith("/bulk");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean read = isRead(request);
+        AdaptiveConcurrencyLimit limit = read ? readLimit : writeLimit;
+        if (!limit.tryAcquire()) {
+            (read ? readRejectedCounter : writeRejectedCounter).increment();
+            reject(request, response, limit);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            filterChain.doFilter(request, response);
+            dropped = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            limit.release(System.nanoTime() - start, dropped);
+        }
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method)
+                || HttpMethod.HEAD.matches(method)
+                || HttpMethod.POST.matches(method) && request.getRequestURI().endsWith("/batch-get");
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, AdaptiveConcurrencyLimit limit) throws IOException {
+        log.debug("Rejected {} {} over the concurrency limit of {}", request.getMethod(), request.getRequestURI(), limit.getLimit());
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE,
+                "The service is overloaded, retry after " + retryAfter.toSeconds() + " seconds");
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter.toSeconds()));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), problem);
+    }
+
+    private static Counter registerMetrics(MeterRegistry meterRegistry, String type, AdaptiveConcurrencyLimit limit) {
+        Gauge.builder("employee.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("type", type)
+                .register(meterRegistry);
+        Gauge.builder("employee.concurrency.in.flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Requests currently running under the concurrency limit")
+                .tag("type", type)
+                .register(meterRegistry);
+        return Counter.builder("employee.concurrency.rejected")
+                .description("Requests rejected with 503 over the concurrency limit")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+}
@@ -1,14 +1,39 @@
 package io.aslan.employeeservice.controller;
 
+import io.aslan.employeeservice.domain.dto.BulkEmployeeImportResponseDTO;
+import io.aslan.employeeservice.domain.dto.EmployeeBatchGetRequestDTO;
+import io.aslan.employeeservice.domain.dto.EmployeeBatchGetResponseDTO;
+import io.aslan.employeeservice.domain.dto.EmployeeCursorPageDTO;
+import io.aslan.employeeservice.domain.dto.EmployeePatchRequestDTO;
 import io.aslan.employeeservice.domain.dto.EmployeeRequestDTO;
 import io.aslan.employeeservice.domain.dto.EmployeeResponseDTO;
+import io.aslan.employeeservice.domain.dto.EmployeeSearchCriteria;
+import io.aslan.employeeservice.domain.dto.ExportFormat;
+import io.aslan.employeeservice.exception.InvalidRequestException;
+import io.aslan.employeeservice.service.EmployeeBatchGetService;
+import io.aslan.employeeservice.service.EmployeeBulkImportService;
+import io.aslan.employeeservice.service.EmployeeExportService;
+import io.aslan.employeeservice.service.EmployeeLookupService;
 import io.aslan.employeeservice.service.EmployeeService;
+import io.aslan.employeeservice.service.EmployeeUpdateRetryService;
+import io.aslan.employeeservice.service.IdempotencyService;
+import io.aslan.employeeservice.util.EmployeeETags;
+import io.aslan.employeeservice.util.EmployeeSortKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -16,34 +41,226 @@ import java.util.List;
 public class EmployeeController {
 
     private static final Logger log = LoggerFactory.getLogger(EmployeeController.class);
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+    private static final String RETRY_ON_CONFLICT_HEADER = "X-Retry-On-Conflict";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
     private final EmployeeService employeeService;
+    private final EmployeeBulkImportService employeeBulkImportService;
+    private final EmployeeExportService employeeExportService;
+    private final EmployeeUpdateRetryService employeeUpdateRetryService;
+    private final EmployeeBatchGetService employeeBatchGetService;
+    private final EmployeeLookupService employeeLookupService;
+    private final IdempotencyService idempotencyService;
+    private final ResponseCompression responseCompression;
+    private final Counter notModifiedCounter;
+    private final Counter modifiedCounter;
 
-    public EmployeeController(EmployeeService employeeService) {
+    public EmployeeController(EmployeeService employeeService,
+                              EmployeeBulkImportService employeeBulkImportService,
+                              EmployeeExportService employeeExportService,
+                              EmployeeUpdateRetryService employeeUpdateRetryService,
+                              EmployeeBatchGetService employeeBatchGetService,
+                              EmployeeLookupService employeeLookupService,
+                              IdempotencyService idempotencyService,
+                              ResponseCompression responseCompression,
+                              MeterRegistry meterRegistry) {
         this.employeeService = employeeService;
+        this.employeeBulkImportService = employeeBulkImportService;
+        this.employeeExportService = employeeExportService;
+        this.employeeUpdateRetryService = employeeUpdateRetryService;
+        this.employeeBatchGetService = employeeBatchGetService;
+        this.employeeLookupService = employeeLookupService;
+        this.idempotencyService = idempotencyService;
+        this.responseCompression = responseCompression;
+        this.notModifiedCounter = meterRegistry.counter("employee.conditional.requests", "outcome", "not_modified");
+        this.modifiedCounter = meterRegistry.counter("employee.conditional.requests", "outcome", "modified");
     }
 
     @GetMapping
-    public List<EmployeeResponseDTO> getEmployees(Pageable pageable) {
-        return employeeService.getEmployees(pageable);
+    public ResponseEntity<List<EmployeeResponseDTO>> getEmployees(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                                  Pageable pageable) {
+        List<EmployeeResponseDTO> employees = employeeService.getEmployees(pageable);
+        return conditionalResponse(ifNoneMatch, EmployeeETags.of(employees, null), employees);
     }
 
+    /**
+     * Keyset pagination: pass an empty {@code cursor} for the first page, then the returned {@code nextCursor}
+     * (with the same {@code sort}) until it comes back null.
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<EmployeeCursorPageDTO> getEmployees(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                              @RequestParam String cursor,
+                                                              @RequestParam(defaultValue = "id") String sort,
+                                                              @RequestParam(defaultValue = "20") int size) {
+        validateCursorPageSize(size);
+        EmployeeCursorPageDTO page = employeeService.getEmployees(cursor, EmployeeSortKey.fromProperty(sort), size);
+        return conditionalResponse(ifNoneMatch, EmployeeETags.of(page.employees(), page.nextCursor()), page);
+    }
+
+    /**
+     * Filters employees by any combination of {@link EmployeeSearchCriteria} parameters, paged with the same
+     * cursors as {@code GET ?cursor=}.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<EmployeeCursorPageDTO> searchEmployees(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                                 EmployeeSearchCriteria criteria,
+                                                                 @RequestParam(defaultValue = "") String cursor,
+                                                                 @RequestParam(defaultValue = "id") String sort,
+                                                                 @RequestParam(defaultValue = "20") int size) {
+        validateCursorPageSize(size);
+        EmployeeCursorPageDTO page = employeeService.searchEmployees(criteria, cursor, EmployeeSortKey.fromProperty(sort), size);
+        return conditionalResponse(ifNoneMatch, EmployeeETags.of(page.employees(), page.nextCursor()), page);
+    }
+
+    /**
+     * Gzipped when the client accepts it. The export runs asynchronously, outside {@link ResponseCompressionFilter},
+     * and is always large enough to be worth compressing.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEmployees(@RequestParam(defaultValue = "ndjson") String format,
+                                                                 HttpServletRequest request) {
+        ExportFormat exportFormat = ExportFormat.fromValue(format);
+        boolean gzip = responseCompression.acceptsGzip(request);
+        log.info("Received request to export employees as {} gzip={}", exportFormat, gzip);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=employees." + exportFormat.value())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!gzip) {
+            return response.body(outputStream -> employeeExportService.exportEmployees(exportFormat, outputStream));
+        }
+        return response
+                .header(HttpHeaders.CONTENT_ENCODING, ResponseCompression.GZIP)
+                .body(outputStream -> {
+                    ResponseCompression.GzipStream compressed = responseCompression.gzip(outputStream);
+                    employeeExportService.exportEmployees(exportFormat, compressed);
+                    compressed.finish();
+                });
+    }
+
+    /**
+     * With a matching {@code If-None-Match} the answer is a 304 based on the id and version alone, without loading
+     * the employee.
+     */
     @GetMapping("/{employeeId}")
-    public EmployeeResponseDTO getEmployee(@PathVariable Long employeeId) {
-        return employeeService.getEmployee(employeeId);
+    public ResponseEntity<EmployeeResponseDTO> getEmployee(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                           @PathVariable Long employeeId) {
+        if (ifNoneMatch != null) {
+            String etag = EmployeeETags.of(employeeId, employeeService.getEmployeeVersion(employeeId));
+            if (isNotModified(ifNoneMatch, etag)) {
+                return notModified(etag);
+            }
+        }
+        EmployeeResponseDTO employee = employeeService.getEmployee(employeeId);
+        return ResponseEntity.ok()
+                .eTag(EmployeeETags.of(employee.id(), employee.version()))
+                .body(employee);
+    }
+
+    @GetMapping("/by-payroll-id/{payrollId}")
+    public ResponseEntity<EmployeeResponseDTO> getEmployeeByPayrollId(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                                      @PathVariable String payrollId) {
+        EmployeeResponseDTO employee = employeeLookupService.getEmployeeByPayrollId(payrollId);
+        return conditionalResponse(ifNoneMatch, EmployeeETags.of(employee.id(), employee.version()), employee);
     }
 
+    @GetMapping("/by-email/{email}")
+    public ResponseEntity<EmployeeResponseDTO> getEmployeeByEmail(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                                  @PathVariable String email) {
+        EmployeeResponseDTO employee = employeeLookupService.getEmployeeByEmail(email);
+        return conditionalResponse(ifNoneMatch, EmployeeETags.of(employee.id(), employee.version()), employee);
+    }
+
+    /**
+     * Retries sent with the same {@code Idempotency-Key} get the first response back instead of creating another
+     * employee, see {@link IdempotencyService}.
+     */
     @PostMapping
-    @ResponseStatus(HttpStatus.CREATED)
-    public EmployeeResponseDTO createEmployee(@RequestBody EmployeeRequestDTO request) {
+    public ResponseEntity<EmployeeResponseDTO> createEmployee(@RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                                              @RequestBody EmployeeRequestDTO request) {
         log.info("Received request to create EmployeeRequestDTO={}", request);
-        return employeeService.createEmployee(request);
+        if (idempotencyKey == null) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(employeeService.createEmployee(request));
+        }
+        IdempotencyService.Response response = idempotencyService.execute(idempotencyKey, "POST", "/api/v1/employee", null, request,
+                () -> new IdempotencyService.Response(HttpStatus.CREATED.value(), employeeService.createEmployee(request)));
+        return idempotentResponse(response).body(response.body());
+    }
+
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public BulkEmployeeImportResponseDTO importEmployees(InputStream body) throws IOException {
+        log.info("Received request to bulk import employees");
+        return employeeBulkImportService.importEmployees(body);
     }
 
+    /**
+     * Fetches up to {@code employee.batch-get.max-size} employees by id or by payroll id in request order. Keys
+     * that don't exist are listed in {@code notFoundIds}/{@code notFoundPayrollIds} rather than failing the call.
+     */
+    @PostMapping("/batch-get")
+    public EmployeeBatchGetResponseDTO getEmployees(@RequestBody EmployeeBatchGetRequestDTO request) {
+        return employeeBatchGetService.getEmployees(request);
+    }
+
+    /**
+     * With {@code If-Match} the update only applies to that version (412 otherwise). Without it, a concurrent
+     * update is rejected with 409, unless an internal caller sets {@code X-Retry-On-Conflict: true} to have the
+     * update retried against the latest version. An {@code Idempotency-Key} works as for create.
+     */
     @PutMapping("/{employeeId}")
-    public EmployeeResponseDTO updateEmployee(@PathVariable Long employeeId,
-                                              @RequestBody EmployeeRequestDTO request) {
+    public ResponseEntity<EmployeeResponseDTO> updateEmployee(@PathVariable Long employeeId,
+                                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                              @RequestHeader(value = RETRY_ON_CONFLICT_HEADER, defaultValue = "false") boolean retryOnConflict,
+                                                              @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                                              @RequestBody EmployeeRequestDTO request) {
         log.info("Received request to create to update employeeId={} EmployeeRequestDTO={}", employeeId, request);
-        return employeeService.updateEmployee(employeeId, request);
+        Long expectedVersion = EmployeeETags.parseIfMatch(employeeId, ifMatch);
+        if (idempotencyKey == null) {
+            EmployeeResponseDTO employee = updateEmployee(employeeId, expectedVersion, retryOnConflict, request);
+            return ResponseEntity.ok()
+                    .eTag(EmployeeETags.of(employee.id(), employee.version()))
+                    .body(employee);
+        }
+        // the update joins the transaction that stores the response, so a conflict is retried around the whole of it
+        IdempotencyService.Response response = expectedVersion == null && retryOnConflict
+                ? employeeUpdateRetryService.retry(employeeId, () -> updateEmployeeOnce(idempotencyKey, employeeId, ifMatch, null, request))
+                : updateEmployeeOnce(idempotencyKey, employeeId, ifMatch, expectedVersion, request);
+        return idempotentResponse(response)
+                .eTag(EmployeeETags.of(response.body().id(), response.body().version()))
+                .body(response.body());
+    }
+
+    private IdempotencyService.Response updateEmployeeOnce(String idempotencyKey, Long employeeId, String ifMatch, Long expectedVersion,
+                                                           EmployeeRequestDTO request) {
+        return idempotencyService.execute(idempotencyKey, "PUT", "/api/v1/employee/" + employeeId, ifMatch, request,
+                () -> new IdempotencyService.Response(HttpStatus.OK.value(), employeeService.updateEmployee(employeeId, expectedVersion, request)));
+    }
+
+    private EmployeeResponseDTO updateEmployee(Long employeeId, Long expectedVersion, boolean retryOnConflict, EmployeeRequestDTO request) {
+        return expectedVersion == null && retryOnConflict
+                ? employeeUpdateRetryService.updateEmployee(employeeId, request)
+                : employeeService.updateEmployee(employeeId, expectedVersion, request);
+    }
+
+    /**
+     * Changes only the fields present in the body, see {@link EmployeePatchRequestDTO}. {@code If-Match} and
+     * {@code X-Retry-On-Conflict} work as for a full update.
+     */
+    @PatchMapping(value = "/{employeeId}", consumes = {MediaType.APPLICATION_JSON_VALUE, MERGE_PATCH_JSON_VALUE})
+    public ResponseEntity<EmployeeResponseDTO> patchEmployee(@PathVariable Long employeeId,
+                                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                             @RequestHeader(value = RETRY_ON_CONFLICT_HEADER, defaultValue = "false") boolean retryOnConflict,
+                                                             @RequestBody EmployeePatchRequestDTO patch) {
+        log.info("Received request to patch employeeId={}", employeeId);
+        Long expectedVersion = EmployeeETags.parseIfMatch(employeeId, ifMatch);
+        EmployeeResponseDTO employee = expectedVersion == null && retryOnConflict
+                ? employeeUpdateRetryService.patchEmployee(employeeId, patch)
+                : employeeService.patchEmployee(employeeId, expectedVersion, patch);
+        return ResponseEntity.ok()
+                .eTag(EmployeeETags.of(employee.id(), employee.version()))
+                .body(employee);
     }
 
     @DeleteMapping("/{employeeId}")
@@ -52,4 +269,44 @@ public class EmployeeController {
         employeeService.deleteEmployee(employeeId);
     }
 
+    /**
+     * A 304 without the body when {@code If-None-Match} matches, so unchanged results aren't serialized again.
+     */
+    private <T> ResponseEntity<T> conditionalResponse(String ifNoneMatch, String etag, T body) {
+        if (isNotModified(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .body(body);
+    }
+
+    private boolean isNotModified(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        boolean notModified = EmployeeETags.matchesIfNoneMatch(ifNoneMatch, etag);
+        (notModified ? notModifiedCounter : modifiedCounter).increment();
+        return notModified;
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .build();
+    }
+
+    private static ResponseEntity.BodyBuilder idempotentResponse(IdempotencyService.Response response) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(response.status());
+        if (response.replayed()) {
+            builder.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+        return builder;
+    }
+
+    private static void validateCursorPageSize(int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new InvalidRequestException("size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+    }
 }
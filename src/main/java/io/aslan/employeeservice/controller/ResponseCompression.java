@@ -0,0 +1,175 @@
+package io.aslan.employeeservice.controller;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content negotiation and gzip streams for {@link ResponseCompressionFilter} and the export, which compresses its
+ * own stream. The bytes before and after compression are counted in {@code employee.http.compression.bytes}.
+ * <p>
+ * Only gzip is offered: the JDK has no Brotli encoder.
+ */
+public class ResponseCompression {
+
+    public static final String GZIP = "gzip";
+
+    private final boolean enabled;
+    private final int minResponseSize;
+    private final List<MediaType> mimeTypes;
+    private final Counter originalBytes;
+    private final Counter compressedBytes;
+
+    public ResponseCompression(boolean enabled, int minResponseSize, List<MediaType> mimeTypes, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.minResponseSize = minResponseSize;
+        this.mimeTypes = mimeTypes;
+        this.originalBytes = Counter.builder("employee.http.compression.bytes")
+                .description("Response bytes before and after gzip compression")
+                .baseUnit("bytes")
+                .tag("stage", "original")
+                .register(meterRegistry);
+        this.compressedBytes = Counter.builder("employee.http.compression.bytes")
+                .description("Response bytes before and after gzip compression")
+                .baseUnit("bytes")
+                .tag("stage", "compressed")
+                .register(meterRegistry);
+    }
+
+    public int getMinResponseSize() {
+        return minResponseSize;
+    }
+
+    /**
+     * @return whether the client listed gzip (or {@code *}) in {@code Accept-Encoding} with a non-zero quality
+     */
+    public boolean acceptsGzip(HttpServletRequest request) {
+        if (!enabled) {
+            return false;
+        }
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if ((GZIP.equalsIgnoreCase(name) || "*".equals(name)) && hasNonZeroQuality(parts)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isCompressible(String contentType) {
+        if (!StringUtils.hasText(contentType)) {
+            return false;
+        }
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        return mimeTypes.stream().anyMatch(mimeType -> mimeType.includes(mediaType));
+    }
+
+    /**
+     * @return a stream that compresses into {@code target}; {@link GzipStream#finish()} completes it without
+     * closing {@code target}
+     */
+    public GzipStream gzip(OutputStream target) throws IOException {
+        return new GzipStream(target);
+    }
+
+    private static boolean hasNonZeroQuality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) > 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public final class GzipStream extends OutputStream {
+
+        private final CountingOutputStream compressed;
+        private final GZIPOutputStream gzip;
+        private long original;
+        private boolean finished;
+
+        private GzipStream(OutputStream target) throws IOException {
+            this.compressed = new CountingOutputStream(target);
+            // sync flush, so a flush of a streamed response reaches the client
+            this.gzip = new GZIPOutputStream(compressed, 8192, true);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            gzip.write(b);
+            original++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            gzip.write(b, off, len);
+            original += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            gzip.flush();
+        }
+
+        public void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            gzip.finish();
+            compressed.flush();
+            originalBytes.increment(original);
+            compressedBytes.increment(compressed.count);
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private final OutputStream target;
+        private long count;
+
+        private CountingOutputStream(OutputStream target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target.flush();
+        }
+    }
+}
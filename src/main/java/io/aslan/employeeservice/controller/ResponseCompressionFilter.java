@@ -0,0 +1,238 @@
+package io.aslan.employeeservice.controller;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+
+/**
+ * Gzips responses of at least {@code employee.compression.min-response-size} bytes when the client accepts it. The
+ * first bytes are held back until the size is reached, so small responses such as a single employee go out as they
+ * are. A compressed response's strong {@code ETag} is turned into a weak one, since the bytes differ from the
+ * uncompressed representation.
+ * <p>
+ * An asynchronous response is finished on its async dispatch, once the body has been written. The export
+ * compresses its own output, so it isn't filtered.
+ */
+public class ResponseCompressionFilter extends OncePerRequestFilter {
+
+    private final ResponseCompression responseCompression;
+
+    public ResponseCompressionFilter(ResponseCompression responseCompression) {
+        this.responseCompression = responseCompression;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().endsWith("/export");
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // on an async dispatch the response is the one wrapped by the initial request, if it was compressed at all
+        CompressingResponse compressingResponse = WebUtils.getNativeResponse(response, CompressingResponse.class);
+        if (compressingResponse == null && !isAsyncDispatch(request)) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (responseCompression.acceptsGzip(request)) {
+                compressingResponse = new CompressingResponse(response);
+            }
+        }
+        if (compressingResponse == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        filterChain.doFilter(request, compressingResponse);
+        if (!isAsyncStarted(request)) {
+            compressingResponse.finish();
+        }
+    }
+
+    private final class CompressingResponse extends HttpServletResponseWrapper {
+
+        private final ThresholdOutputStream outputStream = new ThresholdOutputStream(this);
+        private PrintWriter writer;
+
+        private CompressingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(outputStream, Charset.forName(getCharacterEncoding())));
+            }
+            return writer;
+        }
+
+        // the length is only known once we know whether the body is compressed
+        @Override
+        public void setContentLength(int len) {
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            outputStream.flush();
+            if (outputStream.target != null) {
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            outputStream.buffer.reset();
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            outputStream.buffer.reset();
+        }
+
+        private void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            outputStream.finish();
+        }
+
+        private OutputStream start() throws IOException {
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            if (response.getHeader(HttpHeaders.CONTENT_ENCODING) != null || !responseCompression.isCompressible(getContentType())) {
+                return response.getOutputStream();
+            }
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, ResponseCompression.GZIP);
+            String etag = response.getHeader(HttpHeaders.ETAG);
+            if (etag != null && !etag.startsWith("W/")) {
+                response.setHeader(HttpHeaders.ETAG, "W/" + etag);
+            }
+            return responseCompression.gzip(response.getOutputStream());
+        }
+    }
+
+    /**
+     * Buffers up to the minimum response size, then picks the compressed or the plain stream and writes through.
+     */
+    private final class ThresholdOutputStream extends ServletOutputStream {
+
+        private final CompressingResponse response;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private OutputStream target;
+
+        private ThresholdOutputStream(CompressingResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (target != null) {
+                target.write(b);
+                return;
+            }
+            buffer.write(b);
+            startIfFull();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (target != null) {
+                target.write(b, off, len);
+                return;
+            }
+            buffer.write(b, off, len);
+            startIfFull();
+        }
+
+        // while buffering there is nothing to flush yet
+        @Override
+        public void flush() throws IOException {
+            if (target != null) {
+                target.flush();
+            }
+        }
+
+        private void startIfFull() throws IOException {
+            if (buffer.size() >= responseCompression.getMinResponseSize()) {
+                target = response.start();
+                buffer.writeTo(target);
+                buffer.reset();
+            }
+        }
+
+        private void finish() throws IOException {
+            if (target == null) {
+                if (buffer.size() > 0) {
+                    HttpServletResponse plain = (HttpServletResponse) response.getResponse();
+                    plain.setContentLength(buffer.size());
+                    buffer.writeTo(plain.getOutputStream());
+                }
+                return;
+            }
+            if (target instanceof ResponseCompression.GzipStream gzip) {
+                gzip.finish();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return plainOutputStream().isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            plainOutputStream().setWriteListener(writeListener);
+        }
+
+        private ServletOutputStream plainOutputStream() {
+            try {
+                return response.getResponse().getOutputStream();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package io.aslan.employeeservice.controller;
+
+import io.aslan.employeeservice.domain.dto.SalaryHistoryDTO;
+import io.aslan.employeeservice.service.SalaryHistoryService;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/employee")
+public class SalaryHistoryController {
+
+    private final SalaryHistoryService salaryHistoryService;
+
+    public SalaryHistoryController(SalaryHistoryService salaryHistoryService) {
+        this.salaryHistoryService = salaryHistoryService;
+    }
+
+    @GetMapping("/{employeeId}/salary-history")
+    public List<SalaryHistoryDTO> getEmployeeHistory(@PathVariable Long employeeId, Pageable pageable) {
+        return salaryHistoryService.getEmployeeHistory(employeeId, pageable);
+    }
+
+    /**
+     * Salary changes of all employees with {@code from <= changedAt < to} (ISO date-times), oldest first.
+     */
+    @GetMapping("/salary-history")
+    public List<SalaryHistoryDTO> getChanges(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                             Pageable pageable) {
+        return salaryHistoryService.getChanges(from, to, pageable);
+    }
+}
@@ -0,0 +1,46 @@
+package io.aslan.employeeservice.controller;
+
+import io.aslan.employeeservice.domain.dto.SalaryReviewJobDTO;
+import io.aslan.employeeservice.domain.dto.SalaryReviewRequestDTO;
+import io.aslan.employeeservice.service.SalaryReviewService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/v1/employee/salary-review")
+public class SalaryReviewController {
+
+    private static final Logger log = LoggerFactory.getLogger(SalaryReviewController.class);
+    private final SalaryReviewService salaryReviewService;
+
+    public SalaryReviewController(SalaryReviewService salaryReviewService) {
+        this.salaryReviewService = salaryReviewService;
+    }
+
+    /**
+     * Starts the review in the background and returns 202 with the job, whose {@code Location} can be polled
+     * until its status is COMPLETED or FAILED.
+     */
+    @PostMapping
+    public ResponseEntity<SalaryReviewJobDTO> startReview(@RequestBody SalaryReviewRequestDTO request) {
+        log.info("Received request to start salary review SalaryReviewRequestDTO={}", request);
+        SalaryReviewJobDTO job = salaryReviewService.startReview(request);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{jobId}")
+                .buildAndExpand(job.id())
+                .toUri();
+        return ResponseEntity.accepted()
+                .location(location)
+                .body(job);
+    }
+
+    @GetMapping("/{jobId}")
+    public SalaryReviewJobDTO getJob(@PathVariable String jobId) {
+        return salaryReviewService.getJob(jobId);
+    }
+}
@@ -0,0 +1,14 @@
+package io.aslan.employeeservice.domain.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Totals for the employees with {@code fromPercentage <= salaryAllowancePercentage < toPercentage}.
+ */
+public record AllowanceBandDTO(BigDecimal fromPercentage,
+                               BigDecimal toPercentage,
+                               long headcount,
+                               BigDecimal totalAnnualSalary,
+                               BigDecimal totalMonthlyAllowance) {
+
+}
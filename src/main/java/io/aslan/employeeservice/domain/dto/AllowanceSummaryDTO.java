@@ -0,0 +1,15 @@
+package io.aslan.employeeservice.domain.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Totals over all employees and per allowance percentage band. {@code totalMonthlyAllowance} is the monthly
+ * allowance liability.
+ */
+public record AllowanceSummaryDTO(long headcount,
+                                  BigDecimal totalAnnualSalary,
+                                  BigDecimal totalMonthlyAllowance,
+                                  List<AllowanceBandDTO> bands) {
+
+}
@@ -0,0 +1,10 @@
+package io.aslan.employeeservice.domain.dto;
+
+import java.util.List;
+
+public record BulkEmployeeImportResponseDTO(int total,
+                                            int created,
+                                            int failed,
+                                            List<BulkEmployeeRowResultDTO> rows) {
+
+}
@@ -0,0 +1,14 @@
+package io.aslan.employeeservice.domain.dto;
+
+public record BulkEmployeeRowResultDTO(int row,
+                                       Status status,
+                                       Long id,
+                                       String payrollId,
+                                       String message) {
+
+    public enum Status {
+        CREATED,
+        INVALID,
+        CONFLICT
+    }
+}
@@ -0,0 +1,11 @@
+package io.aslan.employeeservice.domain.dto;
+
+import java.util.List;
+
+/**
+ * Either {@code ids} or {@code payrollIds}, not both.
+ */
+public record EmployeeBatchGetRequestDTO(List<Long> ids,
+                                         List<String> payrollIds) {
+
+}
@@ -0,0 +1,9 @@
+package io.aslan.employeeservice.domain.dto;
+
+import java.util.List;
+
+public record EmployeeBatchGetResponseDTO(List<EmployeeResponseDTO> employees,
+                                          List<Long> notFoundIds,
+                                          List<String> notFoundPayrollIds) {
+
+}
@@ -0,0 +1,8 @@
+package io.aslan.employeeservice.domain.dto;
+
+import java.util.List;
+
+public record EmployeeCursorPageDTO(List<EmployeeResponseDTO> employees,
+                                    String nextCursor) {
+
+}
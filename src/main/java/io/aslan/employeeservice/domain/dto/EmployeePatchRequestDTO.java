@@ -0,0 +1,15 @@
+package io.aslan.employeeservice.domain.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * A partial update: fields that are left out (or null) keep their current value.
+ */
+public record EmployeePatchRequestDTO(String firstName,
+                                      String lastName,
+                                      String email,
+                                      String payrollId,
+                                      BigDecimal annualSalary,
+                                      BigDecimal salaryAllowancePercentage) {
+
+}
@@ -8,6 +8,7 @@ public record EmployeeResponseDTO(Long id,
                                   String email,
                                   String payrollId,
                                   BigDecimal annualSalary,
-                                  BigDecimal salaryAllowancePercentage) {
+                                  BigDecimal salaryAllowancePercentage,
+                                  Long version) {
 
 }
@@ -0,0 +1,20 @@
+package io.aslan.employeeservice.domain.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Optional employee filters, all combined with AND. Ranges are inclusive.
+ */
+public record EmployeeSearchCriteria(String lastNamePrefix,
+                                     String emailDomain,
+                                     BigDecimal minAnnualSalary,
+                                     BigDecimal maxAnnualSalary,
+                                     BigDecimal minSalaryAllowancePercentage,
+                                     BigDecimal maxSalaryAllowancePercentage,
+                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime salaryChangedFrom,
+                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime salaryChangedTo) {
+
+}
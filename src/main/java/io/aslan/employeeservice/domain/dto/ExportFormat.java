@@ -0,0 +1,35 @@
+package io.aslan.employeeservice.domain.dto;
+
+import io.aslan.employeeservice.exception.InvalidRequestException;
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+
+public enum ExportFormat {
+
+    NDJSON("ndjson", MediaType.APPLICATION_NDJSON),
+    CSV("csv", new MediaType("text", "csv"));
+
+    private final String value;
+    private final MediaType mediaType;
+
+    ExportFormat(String value, MediaType mediaType) {
+        this.value = value;
+        this.mediaType = mediaType;
+    }
+
+    public String value() {
+        return value;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public static ExportFormat fromValue(String value) {
+        return Arrays.stream(values())
+                .filter(format -> format.value.equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new InvalidRequestException("Unsupported export format=" + value));
+    }
+}
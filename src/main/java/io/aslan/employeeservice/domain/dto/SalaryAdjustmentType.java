@@ -0,0 +1,14 @@
+package io.aslan.employeeservice.domain.dto;
+
+public enum SalaryAdjustmentType {
+
+    /**
+     * Adds {@code amount} to the annual salary.
+     */
+    ABSOLUTE,
+
+    /**
+     * Raises the annual salary by {@code amount} percent, rounded HALF_UP to 2 decimals.
+     */
+    PERCENTAGE
+}
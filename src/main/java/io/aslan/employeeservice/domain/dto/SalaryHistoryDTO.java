@@ -0,0 +1,17 @@
+package io.aslan.employeeservice.domain.dto;
+
+import io.aslan.employeeservice.domain.entity.EmployeeSalaryHistory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record SalaryHistoryDTO(Long id,
+                               Long employeeId,
+                               BigDecimal oldAnnualSalary,
+                               BigDecimal newAnnualSalary,
+                               BigDecimal oldSalaryAllowancePercentage,
+                               BigDecimal newSalaryAllowancePercentage,
+                               LocalDateTime changedAt,
+                               EmployeeSalaryHistory.Source source) {
+
+}
@@ -0,0 +1,23 @@
+package io.aslan.employeeservice.domain.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * {@code skipped} counts employees that were changed concurrently or whose salary would become negative.
+ */
+public record SalaryReviewJobDTO(String id,
+                                 Status status,
+                                 int total,
+                                 int processed,
+                                 int updated,
+                                 int skipped,
+                                 String error,
+                                 LocalDateTime startedAt,
+                                 LocalDateTime completedAt) {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
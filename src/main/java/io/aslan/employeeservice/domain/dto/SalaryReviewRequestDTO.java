@@ -0,0 +1,14 @@
+package io.aslan.employeeservice.domain.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Targets either the given {@code ids} or every employee matching {@code filter}.
+ */
+public record SalaryReviewRequestDTO(List<Long> ids,
+                                     EmployeeSearchCriteria filter,
+                                     SalaryAdjustmentType adjustmentType,
+                                     BigDecimal amount) {
+
+}
@@ -0,0 +1,30 @@
+package io.aslan.employeeservice.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * Running totals for the employees whose allowance percentage falls in one band, kept up to date by every write
+ * path, see {@link io.aslan.employeeservice.service.AllowanceSummaryService}.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "allowance_band_summary")
+public class AllowanceBandSummary {
+
+    @Id
+    private BigDecimal bandStart;
+
+    @Column(nullable = false)
+    private long headcount;
+
+    @Column(nullable = false)
+    private BigDecimal totalAnnualSalary;
+
+    @Column(nullable = false)
+    private BigDecimal totalMonthlyAllowance;
+}
@@ -0,0 +1,41 @@
+package io.aslan.employeeservice.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * An allowance update notification waiting to be relayed to SQS. Rows are written in the same transaction
+ * as the employee change and deleted once SQS has accepted them.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "allowance_outbox")
+public class AllowanceOutboxMessage {
+
+    // allocationSize = 1 keeps ids in insert order across nodes, the relay relies on it for per-employee ordering
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "allowance_outbox_id_seq")
+    @SequenceGenerator(name = "allowance_outbox_id_seq", sequenceName = "allowance_outbox_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long employeeId;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private int attempts;
+
+    @Column(columnDefinition = "text")
+    private String lastError;
+}
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -12,10 +14,12 @@ import java.time.LocalDateTime;
 @Setter
 @ToString
 @Entity
+@DynamicUpdate
 public class Employee {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_id_seq")
+    @SequenceGenerator(name = "employee_id_seq", sequenceName = "employee_seq", allocationSize = 50)
     private Long id;
 
     private String firstName;
@@ -35,5 +39,10 @@ public class Employee {
     @Column(unique = true, nullable = false)
     private String email;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
 
 }
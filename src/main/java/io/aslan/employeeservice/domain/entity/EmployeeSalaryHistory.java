@@ -0,0 +1,50 @@
+package io.aslan.employeeservice.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One change of an employee's salary or allowance percentage. Rows are kept after the employee is deleted.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "employee_salary_history")
+public class EmployeeSalaryHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long employeeId;
+
+    @Column(nullable = false)
+    private BigDecimal oldAnnualSalary;
+
+    @Column(nullable = false)
+    private BigDecimal newAnnualSalary;
+
+    @Column(nullable = false)
+    private BigDecimal oldSalaryAllowancePercentage;
+
+    @Column(nullable = false)
+    private BigDecimal newSalaryAllowancePercentage;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Source source;
+
+    public enum Source {
+        API,
+        SALARY_REVIEW,
+        HR_SYNC
+    }
+}
@@ -0,0 +1,49 @@
+package io.aslan.employeeservice.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * The outcome of a create or update sent with an {@code Idempotency-Key}. The node executing the request holds
+ * the row IN_PROGRESS until {@code lockedUntil}; after that another node may take it over once the executing
+ * transaction has ended.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "idempotency_record")
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "idempotency_key")
+    private String idempotencyKey;
+
+    @Column(nullable = false)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    private Integer responseStatus;
+
+    @Column(columnDefinition = "text")
+    private String responseBody;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    public enum Status {
+        IN_PROGRESS,
+        COMPLETED
+    }
+}
@@ -0,0 +1,22 @@
+package io.aslan.employeeservice.domain.message;
+
+import java.math.BigDecimal;
+
+/**
+ * An employee change pushed by the HR system of record. Employees are matched on {@code payrollId}; a DELETE only
+ * needs that.
+ */
+public record EmployeeSyncMessage(
+        Type type,
+        String payrollId,
+        String firstName,
+        String lastName,
+        String email,
+        BigDecimal annualSalary,
+        BigDecimal salaryAllowancePercentage) {
+
+    public enum Type {
+        UPSERT,
+        DELETE
+    }
+}
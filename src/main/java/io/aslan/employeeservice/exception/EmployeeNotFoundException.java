@@ -1,5 +1,9 @@
 package io.aslan.employeeservice.exception;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
 public class EmployeeNotFoundException extends RuntimeException {
 
     public EmployeeNotFoundException(String message) {
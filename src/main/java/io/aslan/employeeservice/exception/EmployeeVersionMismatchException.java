@@ -0,0 +1,12 @@
+package io.aslan.employeeservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class EmployeeVersionMismatchException extends RuntimeException {
+
+    public EmployeeVersionMismatchException(String message) {
+        super(message);
+    }
+}
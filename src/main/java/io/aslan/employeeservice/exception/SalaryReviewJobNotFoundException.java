@@ -0,0 +1,12 @@
+package io.aslan.employeeservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class SalaryReviewJobNotFoundException extends RuntimeException {
+
+    public SalaryReviewJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package io.aslan.employeeservice.repository;
+
+import io.aslan.employeeservice.domain.entity.AllowanceBandSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface AllowanceBandSummaryRepository extends JpaRepository<AllowanceBandSummary, BigDecimal> {
+
+    @Query("select s from AllowanceBandSummary s where s.headcount <> 0 order by s.bandStart")
+    List<AllowanceBandSummary> findNonEmptyBands();
+}
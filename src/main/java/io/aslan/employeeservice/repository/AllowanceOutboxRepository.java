@@ -0,0 +1,45 @@
+package io.aslan.employeeservice.repository;
+
+import io.aslan.employeeservice.domain.entity.AllowanceOutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface AllowanceOutboxRepository extends JpaRepository<AllowanceOutboxMessage, Long> {
+
+    /**
+     * Locks the next due messages, taking at most the oldest pending message per employee so that a newer
+     * change can't overtake an older one that is still waiting for a retry. Rows locked by another relay
+     * are skipped. Messages created after {@code createdBefore} are still inside their coalescing window.
+     */
+    @Query(value = """
+            SELECT o.* FROM allowance_outbox o
+            WHERE o.next_attempt_at <= :now
+              AND o.created_at <= :createdBefore
+              AND NOT EXISTS (SELECT 1 FROM allowance_outbox older
+                              WHERE older.employee_id = o.employee_id AND older.id < o.id)
+            ORDER BY o.id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED""", nativeQuery = true)
+    List<AllowanceOutboxMessage> lockNextBatch(LocalDateTime now, LocalDateTime createdBefore, int limit);
+
+    /**
+     * Locks the newest message for the employee that hasn't been attempted yet and is still inside its
+     * coalescing window. A message the relay is sending right now is locked and therefore skipped.
+     */
+    @Query(value = """
+            SELECT o.* FROM allowance_outbox o
+            WHERE o.employee_id = :employeeId
+              AND o.attempts = 0
+              AND o.created_at > :createdAfter
+            ORDER BY o.id DESC
+            LIMIT 1
+            FOR UPDATE SKIP LOCKED""", nativeQuery = true)
+    Optional<AllowanceOutboxMessage> lockCoalescible(Long employeeId, LocalDateTime createdAfter);
+
+    @Query("select min(o.createdAt) from AllowanceOutboxMessage o")
+    LocalDateTime findOldestCreatedAt();
+}
@@ -1,11 +1,71 @@
 package io.aslan.employeeservice.repository;
 
+import io.aslan.employeeservice.domain.dto.EmployeeResponseDTO;
 import io.aslan.employeeservice.domain.entity.Employee;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+/**
+ * The {@code *Response*} queries select straight into {@link EmployeeResponseDTO}, so read paths don't
+ * create managed entities, dirty-checking snapshots or a mapping step.
+ */
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSpecificationExecutor<Employee> {
+
+    String SELECT_RESPONSE = """
+            select new io.aslan.employeeservice.domain.dto.EmployeeResponseDTO(
+                e.id, e.firstName, e.lastName, e.email, e.payrollId, e.annualSalary, e.salaryAllowancePercentage, e.version)
+            from Employee e""";
 
     Optional<Employee> findOneById(Long id);
+
+    @Query(SELECT_RESPONSE + " where e.id = :id")
+    Optional<EmployeeResponseDTO> findResponseById(Long id);
+
+    /**
+     * A {@link Slice} rather than a page, so no count query is run.
+     */
+    @Query(SELECT_RESPONSE)
+    Slice<EmployeeResponseDTO> findResponses(Pageable pageable);
+
+    @Query("select e.version from Employee e where e.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    @Query("select e.id from Employee e where e.payrollId = :payrollId")
+    Optional<Long> findIdByPayrollId(String payrollId);
+
+    @Query("select e.id from Employee e where e.email = :email")
+    Optional<Long> findIdByEmail(String email);
+
+    @Query(SELECT_RESPONSE + " where e.id in :ids")
+    List<EmployeeResponseDTO> findResponsesByIdIn(Collection<Long> ids);
+
+    @Query(SELECT_RESPONSE + " where e.payrollId in :payrollIds")
+    List<EmployeeResponseDTO> findResponsesByPayrollIdIn(Collection<String> payrollIds);
+
+    @Query("select e.payrollId from Employee e where e.payrollId in :payrollIds")
+    List<String> findExistingPayrollIds(Collection<String> payrollIds);
+
+    @Query("select e.email from Employee e where e.email in :emails")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    /**
+     * Streams every employee in id order through a server-side cursor. Must be consumed inside a transaction
+     * (Postgres only honours the fetch size with auto-commit off) and closed when done.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")})
+    @Query(SELECT_RESPONSE + " order by e.id")
+    Stream<EmployeeResponseDTO> streamAllResponses();
 }
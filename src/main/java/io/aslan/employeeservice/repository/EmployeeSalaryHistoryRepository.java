@@ -0,0 +1,24 @@
+package io.aslan.employeeservice.repository;
+
+import io.aslan.employeeservice.domain.dto.SalaryHistoryDTO;
+import io.aslan.employeeservice.domain.entity.EmployeeSalaryHistory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+
+public interface EmployeeSalaryHistoryRepository extends JpaRepository<EmployeeSalaryHistory, Long> {
+
+    String SELECT_DTO = """
+            select new io.aslan.employeeservice.domain.dto.SalaryHistoryDTO(h.id, h.employeeId, h.oldAnnualSalary,
+                h.newAnnualSalary, h.oldSalaryAllowancePercentage, h.newSalaryAllowancePercentage, h.changedAt, h.source)
+            from EmployeeSalaryHistory h""";
+
+    @Query(SELECT_DTO + " where h.employeeId = :employeeId order by h.changedAt desc, h.id desc")
+    Slice<SalaryHistoryDTO> findByEmployeeId(Long employeeId, Pageable pageable);
+
+    @Query(SELECT_DTO + " where h.changedAt >= :from and h.changedAt < :to order by h.changedAt, h.id")
+    Slice<SalaryHistoryDTO> findChangedBetween(LocalDateTime from, LocalDateTime to, Pageable pageable);
+}
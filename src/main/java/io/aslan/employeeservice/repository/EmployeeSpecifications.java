@@ -0,0 +1,72 @@
+package io.aslan.employeeservice.repository;
+
+import io.aslan.employeeservice.domain.dto.EmployeeSearchCriteria;
+import io.aslan.employeeservice.domain.entity.Employee;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Builds employee filters whose SQL matches the expression indexes in {@code db/employee-indexes.sql}:
+ * the last name prefix is matched on {@code lower(last_name)} and the email domain as a prefix of
+ * {@code reverse(lower(email))}, so both can use a B-tree range scan instead of a full table scan.
+ */
+public final class EmployeeSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private EmployeeSpecifications() {
+    }
+
+    public static Specification<Employee> matching(EmployeeSearchCriteria criteria) {
+        return (root, query, builder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (hasText(criteria.lastNamePrefix())) {
+                predicates.add(builder.like(builder.lower(root.get("lastName")),
+                        escapeLike(criteria.lastNamePrefix().toLowerCase(Locale.ROOT)) + "%", LIKE_ESCAPE));
+            }
+            if (hasText(criteria.emailDomain())) {
+                String reversedDomain = new StringBuilder("@" + criteria.emailDomain().toLowerCase(Locale.ROOT))
+                        .reverse()
+                        .toString();
+                Expression<String> reversedEmail = builder.function("reverse", String.class, builder.lower(root.get("email")));
+                predicates.add(builder.like(reversedEmail, escapeLike(reversedDomain) + "%", LIKE_ESCAPE));
+            }
+            if (criteria.minAnnualSalary() != null) {
+                predicates.add(builder.greaterThanOrEqualTo(root.get("annualSalary"), criteria.minAnnualSalary()));
+            }
+            if (criteria.maxAnnualSalary() != null) {
+                predicates.add(builder.lessThanOrEqualTo(root.get("annualSalary"), criteria.maxAnnualSalary()));
+            }
+            if (criteria.minSalaryAllowancePercentage() != null) {
+                predicates.add(builder.greaterThanOrEqualTo(root.get("salaryAllowancePercentage"), criteria.minSalaryAllowancePercentage()));
+            }
+            if (criteria.maxSalaryAllowancePercentage() != null) {
+                predicates.add(builder.lessThanOrEqualTo(root.get("salaryAllowancePercentage"), criteria.maxSalaryAllowancePercentage()));
+            }
+            if (criteria.salaryChangedFrom() != null) {
+                predicates.add(builder.greaterThanOrEqualTo(root.get("lastSalaryChangedDate"), criteria.salaryChangedFrom()));
+            }
+            if (criteria.salaryChangedTo() != null) {
+                predicates.add(builder.lessThanOrEqualTo(root.get("lastSalaryChangedDate"), criteria.salaryChangedTo()));
+            }
+
+            return builder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -0,0 +1,74 @@
+package io.aslan.employeeservice.repository;
+
+import io.aslan.employeeservice.domain.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * @return 1 if this caller now owns the key, 0 if another request already has it
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO idempotency_record (idempotency_key, request_hash, status, created_at, locked_until, expires_at)
+            VALUES (:idempotencyKey, :requestHash, 'IN_PROGRESS', :now, :lockedUntil, :expiresAt)
+            ON CONFLICT (idempotency_key) DO NOTHING""", nativeQuery = true)
+    int insertIfAbsent(String idempotencyKey, String requestHash, LocalDateTime now, LocalDateTime lockedUntil, LocalDateTime expiresAt);
+
+    /**
+     * Takes over a key whose record has expired, or whose owner stopped working on the same request without
+     * releasing it (e.g. the node died).
+     *
+     * @return 1 if this caller now owns the key
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE idempotency_record
+            SET request_hash = :requestHash, status = 'IN_PROGRESS', response_status = NULL, response_body = NULL,
+                created_at = :now, locked_until = :lockedUntil, expires_at = :expiresAt
+            WHERE idempotency_key = :idempotencyKey
+              AND (expires_at <= :now
+                   OR (status = 'IN_PROGRESS' AND locked_until <= :now AND request_hash = :requestHash))""", nativeQuery = true)
+    int takeOver(String idempotencyKey, String requestHash, LocalDateTime now, LocalDateTime lockedUntil, LocalDateTime expiresAt);
+
+    /**
+     * Extends the lease of a key this caller still owns and locks its row until the end of the transaction, so a
+     * concurrent {@link #takeOver} waits for the outcome instead of running the request a second time.
+     *
+     * @return 1 if this caller still owns the key
+     */
+    @Modifying
+    @Query("""
+            update IdempotencyRecord r
+            set r.lockedUntil = :lockedUntil
+            where r.idempotencyKey = :idempotencyKey
+              and r.createdAt = :acquiredAt
+              and r.status = io.aslan.employeeservice.domain.entity.IdempotencyRecord.Status.IN_PROGRESS""")
+    int lock(String idempotencyKey, LocalDateTime acquiredAt, LocalDateTime lockedUntil);
+
+    @Modifying
+    @Query("""
+            update IdempotencyRecord r
+            set r.status = :status, r.responseStatus = :responseStatus, r.responseBody = :responseBody
+            where r.idempotencyKey = :idempotencyKey""")
+    int complete(String idempotencyKey, IdempotencyRecord.Status status, int responseStatus, String responseBody);
+
+    /**
+     * Gives up a key after its request failed, unless a retry has taken it over in the meantime.
+     */
+    @Modifying
+    @Query("""
+            delete from IdempotencyRecord r
+            where r.idempotencyKey = :idempotencyKey
+              and r.createdAt = :acquiredAt
+              and r.status = io.aslan.employeeservice.domain.entity.IdempotencyRecord.Status.IN_PROGRESS""")
+    int release(String idempotencyKey, LocalDateTime acquiredAt);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt <= :now")
+    int deleteExpired(LocalDateTime now);
+}
@@ -0,0 +1,204 @@
+package io.aslan.employeeservice.service;
+
+import io.aslan.employeeservice.domain.entity.AllowanceOutboxMessage;
+import io.aslan.employeeservice.repository.AllowanceOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the allowance outbox to SQS with SendMessageBatch. Up to {@code max-in-flight-batches} batches are
+ * locked, sent concurrently and removed in one transaction, so a crash between the send and the delete re-sends
+ * them (at-least-once delivery). Failed entries are retried with exponential backoff. Messages are held back
+ * until their coalescing window has passed, see {@link NotificationService}.
+ */
+@Component
+public class AllowanceOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(AllowanceOutboxRelay.class);
+    private static final int MAX_SQS_BATCH_SIZE = 10;
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(1);
+    private static final MessageAttributeValue JSON_CONTENT_TYPE = MessageAttributeValue.builder()
+            .dataType("String")
+            .stringValue("application/json")
+            .build();
+
+    private final AllowanceOutboxRepository allowanceOutboxRepository;
+    private final SqsAsyncClient sqsAsyncClient;
+    private final TransactionTemplate transactionTemplate;
+    private final String notificationServiceQueueUrl;
+    private final int batchSize;
+    private final int maxInFlightBatches;
+    private final Duration maxBackoff;
+    private final Duration coalescingWindow;
+
+    private final Timer sendTimer;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final AtomicLong pendingMessages = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public AllowanceOutboxRelay(AllowanceOutboxRepository allowanceOutboxRepository,
+                                SqsAsyncClient sqsAsyncClient,
+                                TransactionTemplate transactionTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${notification.service.queue.url}") String notificationServiceQueueUrl,
+                                @Value("${notification.outbox.batch-size}") int batchSize,
+                                @Value("${notification.outbox.max-in-flight-batches}") int maxInFlightBatches,
+                                @Value("${notification.outbox.max-backoff}") Duration maxBackoff,
+                                @Value("${notification.coalescing.window}") Duration coalescingWindow) {
+        this.allowanceOutboxRepository = allowanceOutboxRepository;
+        this.sqsAsyncClient = sqsAsyncClient;
+        this.transactionTemplate = transactionTemplate;
+        this.notificationServiceQueueUrl = notificationServiceQueueUrl;
+        this.batchSize = Math.min(batchSize, MAX_SQS_BATCH_SIZE);
+        this.maxInFlightBatches = maxInFlightBatches;
+        this.maxBackoff = maxBackoff;
+        this.coalescingWindow = coalescingWindow;
+
+        this.sendTimer = Timer.builder("notification.outbox.send")
+                .description("SQS SendMessageBatch round-trips")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.sentCounter = meterRegistry.counter("notification.outbox.sent");
+        this.failedCounter = meterRegistry.counter("notification.outbox.failed");
+        Gauge.builder("notification.outbox.pending", pendingMessages, AtomicLong::get)
+                .description("Allowance update messages waiting to be sent")
+                .register(meterRegistry);
+        TimeGauge.builder("notification.outbox.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Age of the oldest allowance update message waiting to be sent")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval}")
+    public void relay() {
+        int claimed;
+        do {
+            claimed = transactionTemplate.execute(status -> relayBatches());
+        } while (claimed == batchSize * maxInFlightBatches);
+
+        updateLag();
+    }
+
+    private int relayBatches() {
+        LocalDateTime now = LocalDateTime.now();
+        List<AllowanceOutboxMessage> claimed = allowanceOutboxRepository.lockNextBatch(now, now.minus(coalescingWindow),
+                batchSize * maxInFlightBatches);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        // start every send before waiting for any of them so the SQS round-trips overlap
+        List<List<AllowanceOutboxMessage>> batches = new ArrayList<>();
+        List<CompletableFuture<SendMessageBatchResponse>> responses = new ArrayList<>();
+        for (int from = 0; from < claimed.size(); from += batchSize) {
+            List<AllowanceOutboxMessage> batch = claimed.subList(from, Math.min(from + batchSize, claimed.size()));
+            batches.add(batch);
+            responses.add(send(batch));
+        }
+
+        List<AllowanceOutboxMessage> sent = new ArrayList<>(claimed.size());
+        for (int i = 0; i < batches.size(); i++) {
+            handleResponse(batches.get(i), responses.get(i), sent);
+        }
+        allowanceOutboxRepository.deleteAllInBatch(sent);
+        sentCounter.increment(sent.size());
+        return claimed.size();
+    }
+
+    private CompletableFuture<SendMessageBatchResponse> send(List<AllowanceOutboxMessage> batch) {
+        Timer.Sample sample = Timer.start();
+        try {
+            return sqsAsyncClient.sendMessageBatch(toRequest(batch))
+                    .whenComplete((response, e) -> sample.stop(sendTimer));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // runs on the relay thread, the only one allowed to touch the entities of the current transaction
+    private void handleResponse(List<AllowanceOutboxMessage> batch,
+                                CompletableFuture<SendMessageBatchResponse> responseFuture,
+                                List<AllowanceOutboxMessage> sent) {
+        Map<String, AllowanceOutboxMessage> byEntryId = batch.stream()
+                .collect(Collectors.toMap(message -> String.valueOf(message.getId()), Function.identity()));
+        try {
+            SendMessageBatchResponse response = responseFuture.join();
+
+            Set<String> sentIds = response.successful().stream()
+                    .map(SendMessageBatchResultEntry::id)
+                    .collect(Collectors.toSet());
+            sentIds.forEach(id -> sent.add(byEntryId.get(id)));
+
+            for (BatchResultErrorEntry error : response.failed()) {
+                scheduleRetry(byEntryId.get(error.id()), error.code() + ": " + error.message());
+            }
+        } catch (RuntimeException e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            log.warn("Failed to send {} allowance update messages", batch.size(), cause);
+            batch.forEach(message -> scheduleRetry(message, cause.getMessage()));
+        }
+    }
+
+    private SendMessageBatchRequest toRequest(List<AllowanceOutboxMessage> batch) {
+        return SendMessageBatchRequest.builder()
+                .queueUrl(notificationServiceQueueUrl)
+                .entries(batch.stream()
+                        .map(message -> SendMessageBatchRequestEntry.builder()
+                                .id(String.valueOf(message.getId()))
+                                .messageBody(message.getPayload())
+                                .messageAttributes(Map.of("contentType", JSON_CONTENT_TYPE))
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    private void scheduleRetry(AllowanceOutboxMessage message, String error) {
+        int attempts = message.getAttempts() + 1;
+        Duration backoff = INITIAL_BACKOFF.multipliedBy(1L << Math.min(attempts - 1, 20));
+        if (backoff.compareTo(maxBackoff) > 0) {
+            backoff = maxBackoff;
+        }
+
+        message.setAttempts(attempts);
+        message.setLastError(error);
+        message.setNextAttemptAt(LocalDateTime.now().plus(backoff));
+        failedCounter.increment();
+        log.warn("Allowance update message id={} for employeeId={} failed attempt={}, retrying in {}: {}",
+                message.getId(), message.getEmployeeId(), attempts, backoff, error);
+    }
+
+    private void updateLag() {
+        pendingMessages.set(allowanceOutboxRepository.count());
+        LocalDateTime oldest = allowanceOutboxRepository.findOldestCreatedAt();
+        lagMillis.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()));
+    }
+}
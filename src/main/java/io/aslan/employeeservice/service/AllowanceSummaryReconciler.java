@@ -0,0 +1,111 @@
+package io.aslan.employeeservice.service;
+
+import io.aslan.employeeservice.service.AllowanceSummaryService.BandTotals;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Recomputes the allowance summary from the employee table and repairs bands that drifted, e.g. after a write that
+ * bypassed {@link AllowanceSummaryService}, a manual fix in the database or a change of
+ * {@code employee.allowance-summary.band-width}. The first run after startup fills the summary of an existing
+ * database.
+ * <p>
+ * Both sides are read in one repeatable-read transaction, so a committed change is either in both or in neither.
+ * If a writer changes a band while the check runs, the repair fails with a serialization error and is retried on
+ * the next run.
+ */
+@Component
+public class AllowanceSummaryReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(AllowanceSummaryReconciler.class);
+
+    // the same rounding as AllowanceCalculator: half up to cents, first the annual allowance, then the monthly one
+    private static final String RECOMPUTE = """
+            select floor(salary_allowance_percentage / ?) * ? as band_start,
+                   count(*) as headcount,
+                   sum(annual_salary) as total_annual_salary,
+                   sum(round(round(annual_salary * salary_allowance_percentage / 100, 2) / 12, 2)) as total_monthly_allowance
+            from employee
+            group by 1""";
+    private static final String SELECT_SUMMARY = """
+            select band_start, headcount, total_annual_salary, total_monthly_allowance
+            from allowance_band_summary""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AllowanceSummaryService allowanceSummaryService;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer recomputeTimer;
+    private final Counter driftCounter;
+
+    public AllowanceSummaryReconciler(JdbcTemplate jdbcTemplate,
+                                      AllowanceSummaryService allowanceSummaryService,
+                                      PlatformTransactionManager transactionManager,
+                                      MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.allowanceSummaryService = allowanceSummaryService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.recomputeTimer = Timer.builder("employee.allowance.summary.recompute")
+                .description("Full recomputes of the allowance summary")
+                .register(meterRegistry);
+        this.driftCounter = Counter.builder("employee.allowance.summary.drift")
+                .description("Allowance summary bands found out of step with the employee table and repaired")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${employee.allowance-summary.recompute-interval}")
+    public void recompute() {
+        try {
+            recomputeTimer.record(() -> transactionTemplate.executeWithoutResult(status -> reconcile()));
+        } catch (ConcurrencyFailureException e) {
+            log.info("Allowance summary changed while it was being checked, checking again on the next run");
+        }
+    }
+
+    private void reconcile() {
+        BigDecimal bandWidth = allowanceSummaryService.getBandWidth();
+        Map<BigDecimal, BandTotals> expected = new TreeMap<>();
+        jdbcTemplate.query(RECOMPUTE, resultSet -> {
+            expected.put(resultSet.getBigDecimal("band_start"), toBandTotals(resultSet));
+        }, bandWidth, bandWidth);
+        Map<BigDecimal, BandTotals> actual = new TreeMap<>();
+        jdbcTemplate.query(SELECT_SUMMARY, resultSet -> {
+            actual.put(resultSet.getBigDecimal("band_start"), toBandTotals(resultSet));
+        });
+
+        Map<BigDecimal, BandTotals> corrections = new TreeMap<>();
+        expected.forEach((bandStart, totals) -> corrections.put(bandStart,
+                totals.minus(actual.getOrDefault(bandStart, new BandTotals()))));
+        actual.forEach((bandStart, totals) -> corrections.putIfAbsent(bandStart, new BandTotals().minus(totals)));
+        corrections.values().removeIf(BandTotals::isZero);
+        if (corrections.isEmpty()) {
+            return;
+        }
+
+        log.warn("Allowance summary drifted in bands starting at {}, repairing", corrections.keySet());
+        allowanceSummaryService.increment(corrections);
+        driftCounter.increment(corrections.size());
+    }
+
+    private static BandTotals toBandTotals(ResultSet resultSet) throws SQLException {
+        return new BandTotals(resultSet.getLong("headcount"),
+                resultSet.getBigDecimal("total_annual_salary"),
+                resultSet.getBigDecimal("total_monthly_allowance"));
+    }
+}
@@ -0,0 +1,173 @@
+package io.aslan.employeeservice.service;
+
+import io.aslan.employeeservice.domain.dto.AllowanceBandDTO;
+import io.aslan.employeeservice.domain.dto.AllowanceSummaryDTO;
+import io.aslan.employeeservice.domain.entity.AllowanceBandSummary;
+import io.aslan.employeeservice.repository.AllowanceBandSummaryRepository;
+import io.aslan.employeeservice.util.AllowanceCalculator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps {@code allowance_band_summary} in step with the employee table, so the allowance totals are read from a
+ * handful of rows instead of a table scan. Every write path passes the salaries, allowance percentages and monthly
+ * allowances it removes and adds, and the per-band differences are applied as increments in the writer's own
+ * transaction: the totals commit or roll back together with the change.
+ * <p>
+ * Bands are always incremented in ascending order, so two writers touching the same bands wait for each other
+ * instead of deadlocking. {@link AllowanceSummaryReconciler} recomputes the totals from the employee table and
+ * repairs any drift.
+ */
+@Service
+public class AllowanceSummaryService {
+
+    private static final String INCREMENT = """
+            insert into allowance_band_summary (band_start, headcount, total_annual_salary, total_monthly_allowance)
+            values (?, ?, ?, ?)
+            on conflict (band_start) do update
+            set headcount = allowance_band_summary.headcount + excluded.headcount,
+                total_annual_salary = allowance_band_summary.total_annual_salary + excluded.total_annual_salary,
+                total_monthly_allowance = allowance_band_summary.total_monthly_allowance + excluded.total_monthly_allowance""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AllowanceBandSummaryRepository allowanceBandSummaryRepository;
+    private final AllowanceCalculator allowanceCalculator;
+    private final BigDecimal bandWidth;
+
+    public AllowanceSummaryService(JdbcTemplate jdbcTemplate,
+                                   AllowanceBandSummaryRepository allowanceBandSummaryRepository,
+                                   AllowanceCalculator allowanceCalculator,
+                                   @Value("${employee.allowance-summary.band-width}") BigDecimal bandWidth) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.allowanceBandSummaryRepository = allowanceBandSummaryRepository;
+        this.allowanceCalculator = allowanceCalculator;
+        this.bandWidth = bandWidth;
+    }
+
+    @Transactional(readOnly = true)
+    public AllowanceSummaryDTO getSummary() {
+        long headcount = 0;
+        BigDecimal totalAnnualSalary = BigDecimal.ZERO;
+        BigDecimal totalMonthlyAllowance = BigDecimal.ZERO;
+        List<AllowanceBandDTO> bands = new ArrayList<>();
+        for (AllowanceBandSummary band : allowanceBandSummaryRepository.findNonEmptyBands()) {
+            headcount += band.getHeadcount();
+            totalAnnualSalary = totalAnnualSalary.add(band.getTotalAnnualSalary());
+            totalMonthlyAllowance = totalMonthlyAllowance.add(band.getTotalMonthlyAllowance());
+            bands.add(new AllowanceBandDTO(band.getBandStart(), band.getBandStart().add(bandWidth), band.getHeadcount(),
+                    band.getTotalAnnualSalary(), band.getTotalMonthlyAllowance()));
+        }
+        return new AllowanceSummaryDTO(headcount, totalAnnualSalary, totalMonthlyAllowance, bands);
+    }
+
+    /**
+     * For paths that haven't calculated the allowance already.
+     */
+    public Contribution contribution(BigDecimal annualSalary, BigDecimal salaryAllowancePercentage) {
+        return new Contribution(annualSalary, salaryAllowancePercentage,
+                allowanceCalculator.getMonthlyAllowance(annualSalary, salaryAllowancePercentage));
+    }
+
+    /**
+     * @param removed the employee's values before the change, null for a new employee
+     * @param added   the values after the change, null for a deleted employee
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Contribution removed, Contribution added) {
+        apply(removed == null ? List.of() : List.of(removed), added == null ? List.of() : List.of(added));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Collection<Contribution> removed, Collection<Contribution> added) {
+        Map<BigDecimal, BandTotals> deltas = new TreeMap<>();
+        for (Contribution contribution : removed) {
+            deltas.computeIfAbsent(bandStart(contribution.salaryAllowancePercentage()), bandStart -> new BandTotals())
+                    .subtract(contribution);
+        }
+        for (Contribution contribution : added) {
+            deltas.computeIfAbsent(bandStart(contribution.salaryAllowancePercentage()), bandStart -> new BandTotals())
+                    .add(contribution);
+        }
+        increment(deltas);
+    }
+
+    /**
+     * @param deltas per band start, in ascending order
+     */
+    void increment(Map<BigDecimal, BandTotals> deltas) {
+        List<Object[]> increments = new ArrayList<>(deltas.size());
+        deltas.forEach((bandStart, delta) -> {
+            if (!delta.isZero()) {
+                increments.add(new Object[]{bandStart, delta.headcount, delta.totalAnnualSalary, delta.totalMonthlyAllowance});
+            }
+        });
+        if (!increments.isEmpty()) {
+            jdbcTemplate.batchUpdate(INCREMENT, increments);
+        }
+    }
+
+    BigDecimal getBandWidth() {
+        return bandWidth;
+    }
+
+    private BigDecimal bandStart(BigDecimal salaryAllowancePercentage) {
+        return salaryAllowancePercentage.divide(bandWidth, 0, RoundingMode.FLOOR).multiply(bandWidth);
+    }
+
+    /**
+     * What one employee adds to the totals of its band.
+     */
+    public record Contribution(BigDecimal annualSalary,
+                               BigDecimal salaryAllowancePercentage,
+                               BigDecimal monthlyAllowance) {
+    }
+
+    static final class BandTotals {
+
+        private long headcount;
+        private BigDecimal totalAnnualSalary = BigDecimal.ZERO;
+        private BigDecimal totalMonthlyAllowance = BigDecimal.ZERO;
+
+        BandTotals() {
+        }
+
+        BandTotals(long headcount, BigDecimal totalAnnualSalary, BigDecimal totalMonthlyAllowance) {
+            this.headcount = headcount;
+            this.totalAnnualSalary = totalAnnualSalary;
+            this.totalMonthlyAllowance = totalMonthlyAllowance;
+        }
+
+        private void add(Contribution contribution) {
+            headcount++;
+            totalAnnualSalary = totalAnnualSalary.add(contribution.annualSalary());
+            totalMonthlyAllowance = totalMonthlyAllowance.add(contribution.monthlyAllowance());
+        }
+
+        private void subtract(Contribution contribution) {
+            headcount--;
+            totalAnnualSalary = totalAnnualSalary.subtract(contribution.annualSalary());
+            totalMonthlyAllowance = totalMonthlyAllowance.subtract(contribution.monthlyAllowance());
+        }
+
+        BandTotals minus(BandTotals other) {
+            return new BandTotals(headcount - other.headcount,
+                    totalAnnualSalary.subtract(other.totalAnnualSalary),
+                    totalMonthlyAllowance.subtract(other.totalMonthlyAllowance));
+        }
+
+        boolean isZero() {
+            return headcount == 0 && totalAnnualSalary.signum() == 0 && totalMonthlyAllowance.signum() == 0;
+        }
+    }
+}
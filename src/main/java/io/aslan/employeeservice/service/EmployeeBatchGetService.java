@@ -0,0 +1,98 @@
+package io.aslan.employeeservice.service;
+
+import io.aslan.employeeservice.domain.dto.EmployeeBatchGetRequestDTO;
+import io.aslan.employeeservice.domain.dto.EmployeeBatchGetResponseDTO;
+import io.aslan.employeeservice.domain.dto.EmployeeResponseDTO;
+import io.aslan.employeeservice.exception.InvalidRequestException;
+import io.aslan.employeeservice.repository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Resolves many employees by id or payroll id with one {@code IN} query per chunk instead of one query per
+ * employee. Results keep the requested order and keys that don't exist are reported instead of failing the call.
+ */
+@Service
+public class EmployeeBatchGetService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeBatchGetService.class);
+
+    private final EmployeeRepository employeeRepository;
+    private final int chunkSize;
+    private final int maxSize;
+
+    public EmployeeBatchGetService(EmployeeRepository employeeRepository,
+                                   @Value("${employee.batch-get.chunk-size}") int chunkSize,
+                                   @Value("${employee.batch-get.max-size}") int maxSize) {
+        this.employeeRepository = employeeRepository;
+        this.chunkSize = chunkSize;
+        this.maxSize = maxSize;
+    }
+
+    @Transactional(readOnly = true)
+    public EmployeeBatchGetResponseDTO getEmployees(EmployeeBatchGetRequestDTO request) {
+        List<Long> ids = request.ids() == null ? Collections.emptyList() : request.ids();
+        List<String> payrollIds = request.payrollIds() == null ? Collections.emptyList() : request.payrollIds();
+        if (ids.isEmpty() == payrollIds.isEmpty()) {
+            throw new InvalidRequestException("Exactly one of ids or payrollIds must be given");
+        }
+        int size = Math.max(ids.size(), payrollIds.size());
+        if (size > maxSize) {
+            throw new InvalidRequestException("At most " + maxSize + " employees can be requested at once, got " + size);
+        }
+
+        if (!ids.isEmpty()) {
+            List<Long> notFoundIds = new ArrayList<>();
+            List<EmployeeResponseDTO> employees = resolve(ids, employeeRepository::findResponsesByIdIn, EmployeeResponseDTO::id, notFoundIds);
+            log.info("Resolved {} of {} requested employee ids", employees.size(), ids.size());
+            return new EmployeeBatchGetResponseDTO(employees, notFoundIds, List.of());
+        }
+        List<String> notFoundPayrollIds = new ArrayList<>();
+        List<EmployeeResponseDTO> employees = resolve(payrollIds, employeeRepository::findResponsesByPayrollIdIn, EmployeeResponseDTO::payrollId, notFoundPayrollIds);
+        log.info("Resolved {} of {} requested payroll ids", employees.size(), payrollIds.size());
+        return new EmployeeBatchGetResponseDTO(employees, List.of(), notFoundPayrollIds);
+    }
+
+    private <K> List<EmployeeResponseDTO> resolve(List<K> keys,
+                                                  Function<Collection<K>, List<EmployeeResponseDTO>> finder,
+                                                  Function<EmployeeResponseDTO, K> keyOf,
+                                                  List<K> notFound) {
+        if (keys.contains(null)) {
+            throw new InvalidRequestException("Requested keys must not be null");
+        }
+        List<K> distinctKeys = new ArrayList<>(new LinkedHashSet<>(keys));
+        Map<K, EmployeeResponseDTO> found = new HashMap<>(distinctKeys.size() * 2);
+        for (int from = 0; from < distinctKeys.size(); from += chunkSize) {
+            List<K> chunk = distinctKeys.subList(from, Math.min(from + chunkSize, distinctKeys.size()));
+            for (EmployeeResponseDTO employee : finder.apply(chunk)) {
+                found.put(keyOf.apply(employee), employee);
+            }
+        }
+        for (K key : distinctKeys) {
+            if (!found.containsKey(key)) {
+                notFound.add(key);
+            }
+        }
+
+        List<EmployeeResponseDTO> employees = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            EmployeeResponseDTO employee = found.get(key);
+            if (employee != null) {
+                employees.add(employee);
+            }
+        }
+        return employees;
+    }
+}
@@ -0,0 +1,208 @@
+package io.aslan.employeeservice.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.aslan.employeeservice.domain.dto.BulkEmployeeImportResponseDTO;
+import io.aslan.employeeservice.domain.dto.BulkEmployeeRowResultDTO;
+import io.aslan.employeeservice.domain.dto.BulkEmployeeRowResultDTO.Status;
+import io.aslan.employeeservice.domain.dto.EmployeeRequestDTO;
+import io.aslan.employeeservice.domain.entity.Employee;
+import io.aslan.employeeservice.repository.EmployeeRepository;
+import io.aslan.employeeservice.util.EmployeeMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Imports employees from a JSON array or NDJSON stream. Rows are read one at a time and written in chunks,
+ * each chunk in its own transaction so Hibernate can send the inserts as JDBC batches. A bad row is reported
+ * back to the caller instead of failing the whole load.
+ */
+@Service
+public class EmployeeBulkImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeBulkImportService.class);
+
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeMapper employeeMapper;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final AllowanceSummaryService allowanceSummaryService;
+    private final int chunkSize;
+
+    public EmployeeBulkImportService(EmployeeRepository employeeRepository,
+                                     EmployeeMapper employeeMapper,
+                                     ObjectMapper objectMapper,
+                                     TransactionTemplate transactionTemplate,
+                                     AllowanceSummaryService allowanceSummaryService,
+                                     @Value("${employee.bulk-import.chunk-size}") int chunkSize) {
+        this.employeeRepository = employeeRepository;
+        this.employeeMapper = employeeMapper;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.allowanceSummaryService = allowanceSummaryService;
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkEmployeeImportResponseDTO importEmployees(InputStream body) throws IOException {
+        List<BulkEmployeeRowResultDTO> results = new ArrayList<>();
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        int row = 0;
+
+        try (MappingIterator<EmployeeRequestDTO> rows = objectMapper.readerFor(EmployeeRequestDTO.class).readValues(body)) {
+            while (true) {
+                EmployeeRequestDTO request;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    request = rows.nextValue();
+                } catch (JsonParseException e) {
+                    results.add(new BulkEmployeeRowResultDTO(row, Status.INVALID, null, null,
+                            "Malformed input, remaining rows were skipped: " + e.getOriginalMessage()));
+                    break;
+                } catch (JsonMappingException e) {
+                    // the iterator skips to the next value on its own
+                    results.add(new BulkEmployeeRowResultDTO(row++, Status.INVALID, null, null, e.getOriginalMessage()));
+                    continue;
+                }
+
+                String error = validate(request);
+                if (error != null) {
+                    results.add(new BulkEmployeeRowResultDTO(row++, Status.INVALID, null, payrollIdOf(request), error));
+                    continue;
+                }
+
+                chunk.add(new PendingRow(row++, request));
+                if (chunk.size() == chunkSize) {
+                    writeChunk(chunk, results);
+                    chunk.clear();
+                }
+            }
+        }
+        writeChunk(chunk, results);
+
+        results.sort(Comparator.comparingInt(BulkEmployeeRowResultDTO::row));
+        int created = (int) results.stream()
+                .filter(result -> result.status() == Status.CREATED)
+                .count();
+        log.info("Bulk imported {} of {} employees", created, results.size());
+        return new BulkEmployeeImportResponseDTO(results.size(), created, results.size() - created, results);
+    }
+
+    private void writeChunk(List<PendingRow> chunk, List<BulkEmployeeRowResultDTO> results) {
+        List<PendingRow> insertable = rejectConflicts(chunk, results);
+        if (insertable.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<Employee> saved = transactionTemplate.execute(status -> addToAllowanceSummary(employeeRepository.saveAllAndFlush(
+                    insertable.stream()
+                            .map(pendingRow -> employeeMapper.map(pendingRow.request()))
+                            .toList())));
+            for (int i = 0; i < insertable.size(); i++) {
+                results.add(created(insertable.get(i), saved.get(i)));
+            }
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent writer took one of the keys after we checked, find out which row it was
+            log.warn("Batch insert of {} employees hit a constraint violation, retrying row by row", insertable.size());
+            insertable.forEach(pendingRow -> results.add(insertSingle(pendingRow)));
+        }
+    }
+
+    private List<PendingRow> rejectConflicts(List<PendingRow> chunk, List<BulkEmployeeRowResultDTO> results) {
+        if (chunk.isEmpty()) {
+            return chunk;
+        }
+
+        Set<String> existingPayrollIds = new HashSet<>(employeeRepository.findExistingPayrollIds(
+                chunk.stream().map(pendingRow -> pendingRow.request().payrollId()).toList()));
+        Set<String> existingEmails = new HashSet<>(employeeRepository.findExistingEmails(
+                chunk.stream().map(pendingRow -> pendingRow.request().email()).toList()));
+        Set<String> seenPayrollIds = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+
+        List<PendingRow> insertable = new ArrayList<>(chunk.size());
+        for (PendingRow pendingRow : chunk) {
+            String payrollId = pendingRow.request().payrollId();
+            String email = pendingRow.request().email();
+            if (existingPayrollIds.contains(payrollId) || !seenPayrollIds.add(payrollId)) {
+                results.add(conflict(pendingRow, "Employee with payrollId=" + payrollId + " already exists"));
+            } else if (existingEmails.contains(email) || !seenEmails.add(email)) {
+                results.add(conflict(pendingRow, "Employee with email=" + email + " already exists"));
+            } else {
+                insertable.add(pendingRow);
+            }
+        }
+        return insertable;
+    }
+
+    private BulkEmployeeRowResultDTO insertSingle(PendingRow pendingRow) {
+        try {
+            Employee saved = transactionTemplate.execute(status -> addToAllowanceSummary(
+                    List.of(employeeRepository.saveAndFlush(employeeMapper.map(pendingRow.request()))))).get(0);
+            return created(pendingRow, saved);
+        } catch (DataIntegrityViolationException e) {
+            return conflict(pendingRow, e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private List<Employee> addToAllowanceSummary(List<Employee> saved) {
+        allowanceSummaryService.apply(List.of(), saved.stream()
+                .map(employee -> allowanceSummaryService.contribution(employee.getAnnualSalary(), employee.getSalaryAllowancePercentage()))
+                .toList());
+        return saved;
+    }
+
+    private String validate(EmployeeRequestDTO request) {
+        if (request == null) {
+            return "Row is empty";
+        }
+        if (isBlank(request.payrollId())) {
+            return "payrollId is required";
+        }
+        if (isBlank(request.email())) {
+            return "email is required";
+        }
+        if (request.annualSalary() == null || request.annualSalary().signum() < 0) {
+            return "annualSalary must be zero or positive";
+        }
+        if (request.salaryAllowancePercentage() == null || request.salaryAllowancePercentage().signum() < 0) {
+            return "salaryAllowancePercentage must be zero or positive";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static String payrollIdOf(EmployeeRequestDTO request) {
+        return request == null ? null : request.payrollId();
+    }
+
+    private static BulkEmployeeRowResultDTO created(PendingRow pendingRow, Employee employee) {
+        return new BulkEmployeeRowResultDTO(pendingRow.row(), Status.CREATED, employee.getId(), employee.getPayrollId(), null);
+    }
+
+    private static BulkEmployeeRowResultDTO conflict(PendingRow pendingRow, String message) {
+        return new BulkEmployeeRowResultDTO(pendingRow.row(), Status.CONFLICT, null, pendingRow.request().payrollId(), message);
+    }
+
+    private record PendingRow(int row, EmployeeRequestDTO request) {
+    }
+}
@@ -0,0 +1,121 @@
+package io.aslan.employeeservice.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.aslan.employeeservice.domain.dto.EmployeeResponseDTO;
+import io.aslan.employeeservice.domain.dto.ExportFormat;
+import io.aslan.employeeservice.repository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole employee table to an output stream one row at a time. Rows are read through a cursor
+ * straight into response DTOs, so nothing accumulates in the persistence context and memory use doesn't grow
+ * with the table.
+ */
+@Service
+public class EmployeeExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeExportService.class);
+    private static final int FLUSH_EVERY_ROWS = 1000;
+    private static final String CSV_HEADER = "id,firstName,lastName,email,payrollId,annualSalary,salaryAllowancePercentage";
+
+    private final EmployeeRepository employeeRepository;
+    private final ObjectMapper objectMapper;
+
+    public EmployeeExportService(EmployeeRepository employeeRepository,
+                                 ObjectMapper objectMapper) {
+        this.employeeRepository = employeeRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public void exportEmployees(ExportFormat format, OutputStream outputStream) throws IOException {
+        int rows;
+        try (Stream<EmployeeResponseDTO> employees = employeeRepository.streamAllResponses()) {
+            rows = switch (format) {
+                case NDJSON -> writeNdjson(employees.iterator(), outputStream);
+                case CSV -> writeCsv(employees.iterator(), outputStream);
+            };
+        }
+        log.info("Exported {} employees as {}", rows, format);
+    }
+
+    private int writeNdjson(Iterator<EmployeeResponseDTO> employees, OutputStream outputStream) throws IOException {
+        int rows = 0;
+        ObjectWriter rowWriter = objectMapper.writerFor(EmployeeResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            while (employees.hasNext()) {
+                rowWriter.writeValue(generator, employees.next());
+                generator.writeRaw('\n');
+                if (++rows % FLUSH_EVERY_ROWS == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        return rows;
+    }
+
+    private int writeCsv(Iterator<EmployeeResponseDTO> employees, OutputStream outputStream) throws IOException {
+        int rows = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (employees.hasNext()) {
+            EmployeeResponseDTO employee = employees.next();
+            writer.write(String.valueOf(employee.id()));
+            writer.write(',');
+            writeCsvField(writer, employee.firstName());
+            writer.write(',');
+            writeCsvField(writer, employee.lastName());
+            writer.write(',');
+            writeCsvField(writer, employee.email());
+            writer.write(',');
+            writeCsvField(writer, employee.payrollId());
+            writer.write(',');
+            writeCsvField(writer, toPlainString(employee.annualSalary()));
+            writer.write(',');
+            writeCsvField(writer, toPlainString(employee.salaryAllowancePercentage()));
+            writer.write('\n');
+            if (++rows % FLUSH_EVERY_ROWS == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static String toPlainString(BigDecimal value) {
+        return value == null ? null : value.toPlainString();
+    }
+}
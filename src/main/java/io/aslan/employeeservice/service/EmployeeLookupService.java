@@ -0,0 +1,109 @@
+package io.aslan.employeeservice.service;
+
+import io.aslan.employeeservice.config.CacheConfig;
+import io.aslan.employeeservice.domain.dto.EmployeeResponseDTO;
+import io.aslan.employeeservice.exception.EmployeeNotFoundException;
+import io.aslan.employeeservice.repository.EmployeeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Finds employees by their natural keys. A small cache maps each payroll id and email to the employee id, and the
+ * employee itself comes from {@link EmployeeService#getEmployee}, so a cached lookup costs no query at all.
+ * <p>
+ * A mapping can go stale when the key moves to another employee or the employee is deleted. Updates and deletes
+ * evict the keys they change, and every cached mapping is checked against the employee it points to, so a stale
+ * one falls back to the unique index instead of returning the wrong employee.
+ */
+@Service
+public class EmployeeLookupService {
+
+    private final EmployeeService employeeService;
+    private final EmployeeRepository employeeRepository;
+    private final NaturalKey payrollIdKey;
+    private final NaturalKey emailKey;
+
+    public EmployeeLookupService(EmployeeService employeeService,
+                                 EmployeeRepository employeeRepository,
+                                 CacheManager cacheManager,
+                                 MeterRegistry meterRegistry) {
+        this.employeeService = employeeService;
+        this.employeeRepository = employeeRepository;
+        this.payrollIdKey = new NaturalKey("payrollId", EmployeeResponseDTO::payrollId,
+                Objects.requireNonNull(cacheManager.getCache(CacheConfig.EMPLOYEE_IDS_BY_PAYROLL_ID_CACHE)), meterRegistry);
+        this.emailKey = new NaturalKey("email", EmployeeResponseDTO::email,
+                Objects.requireNonNull(cacheManager.getCache(CacheConfig.EMPLOYEE_IDS_BY_EMAIL_CACHE)), meterRegistry);
+    }
+
+    public EmployeeResponseDTO getEmployeeByPayrollId(String payrollId) {
+        return lookUp(payrollIdKey, payrollId, employeeRepository::findIdByPayrollId);
+    }
+
+    public EmployeeResponseDTO getEmployeeByEmail(String email) {
+        return lookUp(emailKey, email, employeeRepository::findIdByEmail);
+    }
+
+    private EmployeeResponseDTO lookUp(NaturalKey naturalKey, String value, Function<String, Optional<Long>> findId) {
+        Long cachedId = naturalKey.ids.get(value, Long.class);
+        if (cachedId != null) {
+            EmployeeResponseDTO employee = findEmployee(naturalKey, cachedId, value);
+            if (employee != null) {
+                naturalKey.hits.increment();
+                return employee;
+            }
+            naturalKey.ids.evict(value);
+            naturalKey.stale.increment();
+        } else {
+            naturalKey.misses.increment();
+        }
+
+        Long employeeId = findId.apply(value)
+                .orElseThrow(() -> notFound(naturalKey, value));
+        EmployeeResponseDTO employee = findEmployee(naturalKey, employeeId, value);
+        if (employee == null) {
+            // changed between the two reads
+            throw notFound(naturalKey, value);
+        }
+        naturalKey.ids.put(value, employeeId);
+        return employee;
+    }
+
+    private EmployeeResponseDTO findEmployee(NaturalKey naturalKey, Long employeeId, String value) {
+        try {
+            EmployeeResponseDTO employee = employeeService.getEmployee(employeeId);
+            return value.equals(naturalKey.extractor.apply(employee)) ? employee : null;
+        } catch (EmployeeNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static EmployeeNotFoundException notFound(NaturalKey naturalKey, String value) {
+        return new EmployeeNotFoundException("Could not find Employee with " + naturalKey.name + "=" + value);
+    }
+
+    private static final class NaturalKey {
+
+        private final String name;
+        private final Function<EmployeeResponseDTO, String> extractor;
+        private final Cache ids;
+        private final Counter hits;
+        private final Counter stale;
+        private final Counter misses;
+
+        private NaturalKey(String name, Function<EmployeeResponseDTO, String> extractor, Cache ids, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.extractor = extractor;
+            this.ids = ids;
+            this.hits = meterRegistry.counter("employee.natural.key.lookups", "key", name, "outcome", "hit");
+            this.stale = meterRegistry.counter("employee.natural.key.lookups", "key", name, "outcome", "stale");
+            this.misses = meterRegistry.counter("employee.natural.key.lookups", "key", name, "outcome", "miss");
+        }
+    }
+}
@@ -1,23 +1,47 @@
 package io.aslan.employeeservice.service;
 
+import io.aslan.employeeservice.config.CacheConfig;
+import io.aslan.employeeservice.config.ReadYourWritesGuard;
+import io.aslan.employeeservice.domain.dto.EmployeeCursorPageDTO;
+import io.aslan.employeeservice.domain.dto.EmployeePatchRequestDTO;
 import io.aslan.employeeservice.domain.dto.EmployeeRequestDTO;
 import io.aslan.employeeservice.domain.dto.EmployeeResponseDTO;
+import io.aslan.employeeservice.domain.dto.EmployeeSearchCriteria;
 import io.aslan.employeeservice.domain.entity.Employee;
+import io.aslan.employeeservice.domain.entity.EmployeeSalaryHistory;
 import io.aslan.employeeservice.exception.EmployeeNotFoundException;
+import io.aslan.employeeservice.exception.EmployeeVersionMismatchException;
 import io.aslan.employeeservice.repository.EmployeeRepository;
+import io.aslan.employeeservice.repository.EmployeeSpecifications;
 import io.aslan.employeeservice.util.AllowanceCalculator;
+import io.aslan.employeeservice.util.EmployeeCursorCodec;
 import io.aslan.employeeservice.util.EmployeeMapper;
+import io.aslan.employeeservice.util.EmployeeSortKey;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 
 @Service
+@Timed(value = "employee.service", histogram = true)
 public class EmployeeService {
 
     private static final Logger log = LoggerFactory.getLogger(EmployeeService.class);
@@ -25,70 +49,240 @@ public class EmployeeService {
     private final EmployeeMapper employeeMapper;
     private final NotificationService notificationService;
     private final AllowanceCalculator allowanceCalculator;
+    private final EmployeeCursorCodec employeeCursorCodec;
+    private final ReadYourWritesGuard readYourWritesGuard;
+    private final SalaryHistoryWriter salaryHistoryWriter;
+    private final AllowanceSummaryService allowanceSummaryService;
+    private final Cache employeesCache;
+    private final Cache employeeIdsByPayrollIdCache;
+    private final Cache employeeIdsByEmailCache;
+    private final Counter allowanceChangedUpdates;
+    private final Counter allowanceUnchangedUpdates;
 
     public EmployeeService(EmployeeRepository employeeRepository,
                            EmployeeMapper employeeMapper,
                            NotificationService notificationService,
-                           AllowanceCalculator allowanceCalculator) {
+                           AllowanceCalculator allowanceCalculator,
+                           EmployeeCursorCodec employeeCursorCodec,
+                           ReadYourWritesGuard readYourWritesGuard,
+                           SalaryHistoryWriter salaryHistoryWriter,
+                           AllowanceSummaryService allowanceSummaryService,
+                           CacheManager cacheManager,
+                           MeterRegistry meterRegistry) {
         this.employeeRepository = employeeRepository;
         this.employeeMapper = employeeMapper;
         this.notificationService = notificationService;
         this.allowanceCalculator = allowanceCalculator;
+        this.employeeCursorCodec = employeeCursorCodec;
+        this.readYourWritesGuard = readYourWritesGuard;
+        this.salaryHistoryWriter = salaryHistoryWriter;
+        this.allowanceSummaryService = allowanceSummaryService;
+        this.employeesCache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE));
+        this.employeeIdsByPayrollIdCache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.EMPLOYEE_IDS_BY_PAYROLL_ID_CACHE));
+        this.employeeIdsByEmailCache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.EMPLOYEE_IDS_BY_EMAIL_CACHE));
+        this.allowanceChangedUpdates = meterRegistry.counter("employee.updates", "allowance.changed", "true");
+        this.allowanceUnchangedUpdates = meterRegistry.counter("employee.updates", "allowance.changed", "false");
     }
 
+    @Transactional(readOnly = true)
     public List<EmployeeResponseDTO> getEmployees(Pageable pageable) {
-        Page<Employee> employees = employeeRepository.findAll(pageable);
-        return employees.stream()
-                .map(employeeMapper::map)
-                .toList();
+        return employeeRepository.findResponses(pageable).getContent();
+    }
+
+    @Transactional(readOnly = true)
+    public EmployeeCursorPageDTO getEmployees(String cursor, EmployeeSortKey sortKey, int size) {
+        return scrollEmployees(Specification.where(null), cursor, sortKey, size);
+    }
+
+    @Transactional(readOnly = true)
+    public EmployeeCursorPageDTO searchEmployees(EmployeeSearchCriteria criteria, String cursor, EmployeeSortKey sortKey, int size) {
+        return scrollEmployees(EmployeeSpecifications.matching(criteria), cursor, sortKey, size);
     }
 
+    @Cacheable(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#employeeId")
+    @Transactional(readOnly = true)
     public EmployeeResponseDTO getEmployee(Long employeeId) {
-        Employee employee = findEmployeeById(employeeId);
-        return employeeMapper.map(employee);
+        // a replica may not have the change yet and the stale value would end up in the cache
+        return readYourWritesGuard.read(employeeId, () -> employeeRepository.findResponseById(employeeId)
+                .orElseThrow(() -> new EmployeeNotFoundException("Could not find Employee with id=" + employeeId)));
     }
 
+    /**
+     * The current version for a conditional GET, taken from the cached employee or else from the version column
+     * alone, so an unchanged employee is never loaded or mapped.
+     */
+    public Long getEmployeeVersion(Long employeeId) {
+        EmployeeResponseDTO cached = employeesCache.get(employeeId, EmployeeResponseDTO.class);
+        if (cached != null) {
+            return cached.version();
+        }
+        return readYourWritesGuard.read(employeeId, () -> employeeRepository.findVersionById(employeeId)
+                .orElseThrow(() -> new EmployeeNotFoundException("Could not find Employee with id=" + employeeId)));
+    }
+
+    @Transactional
     public EmployeeResponseDTO createEmployee(EmployeeRequestDTO request) {
         Employee employee = employeeMapper.map(request);
         Employee savedEmployee = employeeRepository.save(employee);
-        log.info("Saved Employee={}", savedEmployee);
+        readYourWritesGuard.recordWrite(savedEmployee.getId());
+        log.info("Saved employeeId={}", savedEmployee.getId());
+        allowanceSummaryService.apply(null, allowanceSummaryService.contribution(
+                savedEmployee.getAnnualSalary(), savedEmployee.getSalaryAllowancePercentage()));
         return employeeMapper.map(savedEmployee);
     }
 
-    public EmployeeResponseDTO updateEmployee(Long employeeId, EmployeeRequestDTO request) {
-        Employee employee = findEmployeeById(employeeId);
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#employeeId")
+    public EmployeeResponseDTO updateEmployee(Long employeeId, Long expectedVersion, EmployeeRequestDTO request) {
+        Employee employee = findEmployeeForUpdate(employeeId, expectedVersion);
+        employee.setFirstName(request.firstName());
+        employee.setLastName(request.lastName());
+        return applyUpdate(employee, request.email(), request.payrollId(), request.annualSalary(), request.salaryAllowancePercentage());
+    }
+
+    /**
+     * Changes only the fields present in the patch. With {@link Employee}'s dynamic update only those columns are
+     * written, and when neither the salary nor the allowance percentage changes there is no allowance calculation,
+     * salary history or notification at all.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#employeeId")
+    public EmployeeResponseDTO patchEmployee(Long employeeId, Long expectedVersion, EmployeePatchRequestDTO patch) {
+        Employee employee = findEmployeeForUpdate(employeeId, expectedVersion);
+        if (patch.firstName() != null) {
+            employee.setFirstName(patch.firstName());
+        }
+        if (patch.lastName() != null) {
+            employee.setLastName(patch.lastName());
+        }
+        return applyUpdate(employee,
+                Objects.requireNonNullElse(patch.email(), employee.getEmail()),
+                Objects.requireNonNullElse(patch.payrollId(), employee.getPayrollId()),
+                Objects.requireNonNullElse(patch.annualSalary(), employee.getAnnualSalary()),
+                Objects.requireNonNullElse(patch.salaryAllowancePercentage(), employee.getSalaryAllowancePercentage()));
+    }
 
-        log.info("About to update Employee={}", employee);
+    private Employee findEmployeeForUpdate(Long employeeId, Long expectedVersion) {
+        Employee employee = findEmployeeById(employeeId);
+        if (expectedVersion != null && !expectedVersion.equals(employee.getVersion())) {
+            throw new EmployeeVersionMismatchException("Employee with id=" + employeeId + " is at version="
+                    + employee.getVersion() + ", expected version=" + expectedVersion);
+        }
+        return employee;
+    }
 
-        BigDecimal currentMonthlyAllowance = allowanceCalculator.getMonthlyAllowance(employee.getAnnualSalary(), employee.getSalaryAllowancePercentage());
-        BigDecimal newMonthlyAllowance = allowanceCalculator.getMonthlyAllowance(request.annualSalary(), request.salaryAllowancePercentage());
+    private EmployeeResponseDTO applyUpdate(Employee employee,
+                                            String email,
+                                            String payrollId,
+                                            BigDecimal annualSalary,
+                                            BigDecimal salaryAllowancePercentage) {
+        Long employeeId = employee.getId();
+        String oldPayrollId = employee.getPayrollId();
+        String oldEmail = employee.getEmail();
+        BigDecimal oldAnnualSalary = employee.getAnnualSalary();
+        BigDecimal oldSalaryAllowancePercentage = employee.getSalaryAllowancePercentage();
+        boolean annualSalaryChanged = oldAnnualSalary.compareTo(annualSalary) != 0;
+        boolean salaryAllowancePercentageChanged = oldSalaryAllowancePercentage.compareTo(salaryAllowancePercentage) != 0;
 
-        if (!request.annualSalary().equals(employee.getAnnualSalary())) {
-            employee.setAnnualSalary(request.annualSalary());
+        if (annualSalaryChanged) {
+            employee.setAnnualSalary(annualSalary);
             employee.setLastSalaryChangedDate(LocalDateTime.now());
         }
+        if (salaryAllowancePercentageChanged) {
+            employee.setSalaryAllowancePercentage(salaryAllowancePercentage);
+        }
+        employee.setPayrollId(payrollId);
+        employee.setEmail(email);
 
-        employee.setFirstName(request.firstName());
-        employee.setLastName(request.lastName());
-        employee.setPayrollId(request.payrollId());
-        employee.setSalaryAllowancePercentage(request.salaryAllowancePercentage());
-        employee.setEmail(request.email());
+        // flush so a concurrent update fails here and the response carries the new version
+        employeeRepository.saveAndFlush(employee);
+        readYourWritesGuard.recordWrite(employeeId);
+        log.info("Updated employeeId={} to version={}", employeeId, employee.getVersion());
+        evictNaturalKeysAfterCommit(oldPayrollId.equals(payrollId) ? null : oldPayrollId,
+                oldEmail.equals(email) ? null : oldEmail);
+
+        if (!annualSalaryChanged && !salaryAllowancePercentageChanged) {
+            allowanceUnchangedUpdates.increment();
+            return employeeMapper.map(employee);
+        }
 
-        employeeRepository.save(employee);
-        log.info("Updated Employee={}", employee);
+        salaryHistoryWriter.record(new SalaryHistoryWriter.SalaryChange(employeeId, oldAnnualSalary, annualSalary,
+                oldSalaryAllowancePercentage, salaryAllowancePercentage, LocalDateTime.now(),
+                EmployeeSalaryHistory.Source.API));
 
+        BigDecimal currentMonthlyAllowance = allowanceCalculator.getMonthlyAllowance(oldAnnualSalary, oldSalaryAllowancePercentage);
+        BigDecimal newMonthlyAllowance = allowanceCalculator.getMonthlyAllowance(annualSalary, salaryAllowancePercentage);
         if (!currentMonthlyAllowance.equals(newMonthlyAllowance)) {
             notificationService.sendAllowanceUpdateMessage(employee, currentMonthlyAllowance, newMonthlyAllowance);
+            allowanceChangedUpdates.increment();
+        } else {
+            allowanceUnchangedUpdates.increment();
         }
 
+        // last, so the band rows of the summary stay locked for as short as possible
+        allowanceSummaryService.apply(
+                new AllowanceSummaryService.Contribution(oldAnnualSalary, oldSalaryAllowancePercentage, currentMonthlyAllowance),
+                new AllowanceSummaryService.Contribution(annualSalary, salaryAllowancePercentage, newMonthlyAllowance));
         return employeeMapper.map(employee);
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#employeeId")
     public void deleteEmployee(Long employeeId) {
-        employeeRepository.deleteById(employeeId);
+        employeeRepository.findById(employeeId).ifPresent(employee -> {
+            employeeRepository.delete(employee);
+            allowanceSummaryService.apply(allowanceSummaryService.contribution(
+                    employee.getAnnualSalary(), employee.getSalaryAllowancePercentage()), null);
+            evictNaturalKeysAfterCommit(employee.getPayrollId(), employee.getEmail());
+        });
+        readYourWritesGuard.recordWrite(employeeId);
         log.info("Deleted employee with id={}", employeeId);
     }
 
+    /**
+     * Drops the natural key mappings an update or delete made stale, once it has committed so a concurrent
+     * lookup can't put them back. {@link EmployeeLookupService} also checks every mapping it reads, which covers
+     * writes that don't go through here (the HR sync, other nodes).
+     */
+    private void evictNaturalKeysAfterCommit(String payrollId, String email) {
+        if (payrollId == null && email == null) {
+            return;
+        }
+        Runnable evict = () -> {
+            if (payrollId != null) {
+                employeeIdsByPayrollIdCache.evict(payrollId);
+            }
+            if (email != null) {
+                employeeIdsByEmailCache.evict(email);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        } else {
+            evict.run();
+        }
+    }
+
+    private EmployeeCursorPageDTO scrollEmployees(Specification<Employee> specification, String cursor, EmployeeSortKey sortKey, int size) {
+        ScrollPosition position = employeeCursorCodec.decode(cursor, sortKey);
+        Window<Employee> employees = employeeRepository.findBy(specification, query -> query
+                .sortBy(sortKey.sort())
+                .limit(size)
+                .scroll(position));
+
+        String nextCursor = employees.hasNext() && !employees.isEmpty()
+                ? employeeCursorCodec.encode(sortKey, employees.positionAt(employees.size() - 1))
+                : null;
+        return new EmployeeCursorPageDTO(employees.stream()
+                .map(employeeMapper::map)
+                .toList(), nextCursor);
+    }
+
     private Employee findEmployeeById(Long employeeId) {
         return employeeRepository.findOneById(employeeId)
                 .orElseThrow(() -> new EmployeeNotFoundException("Could not find Employee with id=" + employeeId));
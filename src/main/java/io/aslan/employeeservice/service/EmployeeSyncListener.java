@@ -0,0 +1,131 @@
+package io.aslan.employeeservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.aslan.employeeservice.domain.message.EmployeeSyncMessage;
+import io.awspring.cloud.sqs.annotation.SqsListener;
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consumes employee changes from the HR system's queue in batches of up to {@code employee.sync.max-messages-per-poll},
+ * with up to {@code employee.sync.max-concurrent-messages} in flight.
+ * <p>
+ * Only messages that were applied are acknowledged. A malformed message, or one the database rejects, stays on the
+ * queue and comes back after the visibility timeout; the queue's redrive policy moves it to the dead-letter queue
+ * once it has failed {@code maxReceiveCount} times. Messages are applied as a batch, and one at a time only if the
+ * batch fails, so a poison message doesn't hold back the rest.
+ */
+@Component
+@ConditionalOnProperty(name = "employee.sync.enabled", havingValue = "true")
+public class EmployeeSyncListener {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeSyncListener.class);
+
+    private final EmployeeSyncService employeeSyncService;
+    private final ObjectMapper objectMapper;
+    private final Counter appliedCounter;
+    private final Counter rejectedCounter;
+
+    public EmployeeSyncListener(EmployeeSyncService employeeSyncService,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry) {
+        this.employeeSyncService = employeeSyncService;
+        this.objectMapper = objectMapper;
+        this.appliedCounter = meterRegistry.counter("employee.sync.messages", "outcome", "applied");
+        this.rejectedCounter = meterRegistry.counter("employee.sync.messages", "outcome", "rejected");
+    }
+
+    @SqsListener(queueNames = "${employee.sync.queue-name}",
+            maxConcurrentMessages = "${employee.sync.max-concurrent-messages}",
+            maxMessagesPerPoll = "${employee.sync.max-messages-per-poll}",
+            acknowledgementMode = "MANUAL")
+    public void onMessages(List<Message<String>> messages, BatchAcknowledgement<String> acknowledgement) {
+        List<Message<String>> valid = new ArrayList<>(messages.size());
+        List<EmployeeSyncMessage> parsed = new ArrayList<>(messages.size());
+        for (Message<String> message : messages) {
+            EmployeeSyncMessage syncMessage = parse(message);
+            if (syncMessage != null) {
+                valid.add(message);
+                parsed.add(syncMessage);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        try {
+            employeeSyncService.apply(parsed);
+            acknowledgement.acknowledge(valid);
+            appliedCounter.increment(valid.size());
+        } catch (RuntimeException e) {
+            log.warn("Failed to apply a batch of {} employee sync messages, applying them one at a time", valid.size(), e);
+            for (int i = 0; i < valid.size(); i++) {
+                applyOne(valid.get(i), parsed.get(i), acknowledgement);
+            }
+        }
+    }
+
+    private void applyOne(Message<String> message, EmployeeSyncMessage syncMessage, BatchAcknowledgement<String> acknowledgement) {
+        try {
+            employeeSyncService.apply(List.of(syncMessage));
+            acknowledgement.acknowledge(List.of(message));
+            appliedCounter.increment();
+        } catch (RuntimeException e) {
+            rejectedCounter.increment();
+            log.error("Failed to apply employee sync message for payrollId={}, leaving it for redelivery",
+                    syncMessage.payrollId(), e);
+        }
+    }
+
+    private EmployeeSyncMessage parse(Message<String> message) {
+        String error;
+        try {
+            EmployeeSyncMessage syncMessage = objectMapper.readValue(message.getPayload(), EmployeeSyncMessage.class);
+            error = validate(syncMessage);
+            if (error == null) {
+                return syncMessage;
+            }
+        } catch (JsonProcessingException e) {
+            error = e.getOriginalMessage();
+        }
+        rejectedCounter.increment();
+        log.error("Rejected employee sync message id={}: {}", message.getHeaders().getId(), error);
+        return null;
+    }
+
+    private static String validate(EmployeeSyncMessage message) {
+        if (message == null || message.type() == null) {
+            return "type is required";
+        }
+        if (isBlank(message.payrollId())) {
+            return "payrollId is required";
+        }
+        if (message.type() == EmployeeSyncMessage.Type.DELETE) {
+            return null;
+        }
+        if (isBlank(message.email())) {
+            return "email is required";
+        }
+        if (message.annualSalary() == null || message.annualSalary().signum() < 0) {
+            return "annualSalary must be zero or positive";
+        }
+        if (message.salaryAllowancePercentage() == null || message.salaryAllowancePercentage().signum() < 0) {
+            return "salaryAllowancePercentage must be zero or positive";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,202 @@
+package io.aslan.employeeservice.service;
+
+import io.aslan.employeeservice.config.CacheConfig;
+import io.aslan.employeeservice.config.ReadYourWritesGuard;
+import io.aslan.employeeservice.domain.entity.EmployeeSalaryHistory;
+import io.aslan.employeeservice.domain.message.AllowanceUpdateMessage;
+import io.aslan.employeeservice.domain.message.EmployeeSyncMessage;
+import io.aslan.employeeservice.util.AllowanceCalculator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Applies employee changes from the HR system in one transaction per batch: one batched
+ * {@code INSERT ... ON CONFLICT (payroll_id) DO UPDATE} for the upserts and one {@code DELETE} for the deletes.
+ * Allowance update messages are only queued for existing employees whose monthly allowance actually changed.
+ * The allowance summary is updated in the same transaction.
+ */
+@Service
+public class EmployeeSyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeSyncService.class);
+
+    private static final String SELECT_FOR_UPDATE = """
+            select id, payroll_id, annual_salary, salary_allowance_percentage
+            from employee
+            where payroll_id = any(?)
+            for update""";
+    // a raw nextval hands out the top of a block of 50 that Hibernate's pooled generator never uses, so the ids
+    // can't collide with inserts through JPA. Identical events don't bump the version.
+    private static final String UPSERT = """
+            insert into employee (id, first_name, last_name, email, payroll_id, annual_salary,
+                                  salary_allowance_percentage, last_salary_changed_date, version)
+            values (nextval('employee_seq'), ?, ?, ?, ?, ?, ?, ?, 0)
+            on conflict (payroll_id) do update
+            set first_name = excluded.first_name,
+                last_name = excluded.last_name,
+                email = excluded.email,
+                annual_salary = excluded.annual_salary,
+                salary_allowance_percentage = excluded.salary_allowance_percentage,
+                last_salary_changed_date = case
+                    when employee.annual_salary = excluded.annual_salary then employee.last_salary_changed_date
+                    else excluded.last_salary_changed_date end,
+                version = employee.version + 1
+            where (employee.first_name, employee.last_name, employee.email, employee.annual_salary, employee.salary_allowance_percentage)
+                is distinct from
+                (excluded.first_name, excluded.last_name, excluded.email, excluded.annual_salary, excluded.salary_allowance_percentage)""";
+    private static final String DELETE = """
+            delete from employee
+            where payroll_id = any(?)
+            returning id, annual_salary, salary_allowance_percentage""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationService notificationService;
+    private final AllowanceCalculator allowanceCalculator;
+    private final Cache employeesCache;
+    private final ReadYourWritesGuard readYourWritesGuard;
+    private final SalaryHistoryWriter salaryHistoryWriter;
+    private final AllowanceSummaryService allowanceSummaryService;
+
+    public EmployeeSyncService(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               NotificationService notificationService,
+                               AllowanceCalculator allowanceCalculator,
+                               CacheManager cacheManager,
+                               ReadYourWritesGuard readYourWritesGuard,
+                               SalaryHistoryWriter salaryHistoryWriter,
+                               AllowanceSummaryService allowanceSummaryService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.notificationService = notificationService;
+        this.allowanceCalculator = allowanceCalculator;
+        this.employeesCache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE));
+        this.readYourWritesGuard = readYourWritesGuard;
+        this.salaryHistoryWriter = salaryHistoryWriter;
+        this.allowanceSummaryService = allowanceSummaryService;
+    }
+
+    /**
+     * Applies the messages atomically: if one of them can't be applied (e.g. its email belongs to another
+     * employee) nothing is. Several messages for the same payroll id are collapsed to the last one.
+     */
+    public void apply(List<EmployeeSyncMessage> messages) {
+        Map<String, EmployeeSyncMessage> latest = new LinkedHashMap<>();
+        messages.forEach(message -> latest.put(message.payrollId(), message));
+
+        List<Long> changedIds = transactionTemplate.execute(status -> applyInTransaction(latest.values()));
+
+        // the transaction has committed, so a reader can't cache the old employee again
+        changedIds.forEach(employeeId -> {
+            readYourWritesGuard.recordWrite(employeeId);
+            employeesCache.evict(employeeId);
+        });
+    }
+
+    private List<Long> applyInTransaction(Iterable<EmployeeSyncMessage> messages) {
+        List<EmployeeSyncMessage> upserts = new ArrayList<>();
+        List<String> deletes = new ArrayList<>();
+        for (EmployeeSyncMessage message : messages) {
+            if (message.type() == EmployeeSyncMessage.Type.DELETE) {
+                deletes.add(message.payrollId());
+            } else {
+                upserts.add(message);
+            }
+        }
+
+        List<Long> changedIds = new ArrayList<>();
+        List<AllowanceSummaryService.Contribution> removedContributions = new ArrayList<>();
+        List<AllowanceSummaryService.Contribution> addedContributions = new ArrayList<>();
+        if (!upserts.isEmpty()) {
+            changedIds.addAll(upsert(upserts, removedContributions, addedContributions));
+        }
+        if (!deletes.isEmpty()) {
+            List<CurrentSalary> deleted = jdbcTemplate.query(DELETE,
+                    statement -> statement.setArray(1, statement.getConnection().createArrayOf("varchar", deletes.toArray())),
+                    (resultSet, rowNum) -> new CurrentSalary(
+                            resultSet.getLong("id"),
+                            resultSet.getBigDecimal("annual_salary"),
+                            resultSet.getBigDecimal("salary_allowance_percentage")));
+            deleted.forEach(employee -> {
+                changedIds.add(employee.id());
+                removedContributions.add(allowanceSummaryService.contribution(employee.annualSalary(), employee.salaryAllowancePercentage()));
+            });
+        }
+        allowanceSummaryService.apply(removedContributions, addedContributions);
+        log.info("Synced {} upserts and {} deletes from the HR system", upserts.size(), deletes.size());
+        return changedIds;
+    }
+
+    private List<Long> upsert(List<EmployeeSyncMessage> upserts,
+                              List<AllowanceSummaryService.Contribution> removedContributions,
+                              List<AllowanceSummaryService.Contribution> addedContributions) {
+        Map<String, CurrentSalary> current = new HashMap<>();
+        jdbcTemplate.query(SELECT_FOR_UPDATE,
+                statement -> statement.setArray(1, statement.getConnection().createArrayOf("varchar",
+                        upserts.stream().map(EmployeeSyncMessage::payrollId).toArray())),
+                resultSet -> {
+                    current.put(resultSet.getString("payroll_id"), new CurrentSalary(
+                            resultSet.getLong("id"),
+                            resultSet.getBigDecimal("annual_salary"),
+                            resultSet.getBigDecimal("salary_allowance_percentage")));
+                });
+
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(UPSERT, upserts.stream()
+                .map(message -> new Object[]{message.firstName(), message.lastName(), message.email(), message.payrollId(),
+                        message.annualSalary(), message.salaryAllowancePercentage(), Timestamp.valueOf(now)})
+                .toList());
+
+        List<Long> existingIds = new ArrayList<>(current.size());
+        List<AllowanceUpdateMessage> allowanceMessages = new ArrayList<>();
+        List<SalaryHistoryWriter.SalaryChange> salaryChanges = new ArrayList<>();
+        for (EmployeeSyncMessage message : upserts) {
+            CurrentSalary employee = current.get(message.payrollId());
+            // new employees get no allowance message, the same as when they are created through the API
+            if (employee == null) {
+                addedContributions.add(allowanceSummaryService.contribution(message.annualSalary(), message.salaryAllowancePercentage()));
+                continue;
+            }
+            existingIds.add(employee.id());
+            BigDecimal currentAllowance = allowanceCalculator.getMonthlyAllowance(employee.annualSalary(), employee.salaryAllowancePercentage());
+            BigDecimal newAllowance = allowanceCalculator.getMonthlyAllowance(message.annualSalary(), message.salaryAllowancePercentage());
+            if (employee.annualSalary().compareTo(message.annualSalary()) != 0
+                    || employee.salaryAllowancePercentage().compareTo(message.salaryAllowancePercentage()) != 0) {
+                salaryChanges.add(new SalaryHistoryWriter.SalaryChange(employee.id(), employee.annualSalary(), message.annualSalary(),
+                        employee.salaryAllowancePercentage(), message.salaryAllowancePercentage(), now,
+                        EmployeeSalaryHistory.Source.HR_SYNC));
+                removedContributions.add(new AllowanceSummaryService.Contribution(employee.annualSalary(),
+                        employee.salaryAllowancePercentage(), currentAllowance));
+                addedContributions.add(new AllowanceSummaryService.Contribution(message.annualSalary(),
+                        message.salaryAllowancePercentage(), newAllowance));
+            }
+            if (currentAllowance.compareTo(newAllowance) != 0) {
+                allowanceMessages.add(new AllowanceUpdateMessage(employee.id(), message.firstName(), message.lastName(),
+                        currentAllowance, newAllowance, message.email()));
+            }
+        }
+        if (!allowanceMessages.isEmpty()) {
+            notificationService.sendAllowanceUpdateMessages(allowanceMessages);
+        }
+        salaryHistoryWriter.recordAll(salaryChanges);
+        return existingIds;
+    }
+
+    private record CurrentSalary(long id, BigDecimal annualSalary, BigDecimal salaryAllowancePercentage) {
+    }
+}
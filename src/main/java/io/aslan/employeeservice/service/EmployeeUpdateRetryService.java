@@ -0,0 +1,69 @@
+package io.aslan.employeeservice.service;
+
+import io.aslan.employeeservice.domain.dto.EmployeePatchRequestDTO;
+import io.aslan.employeeservice.domain.dto.EmployeeRequestDTO;
+import io.aslan.employeeservice.domain.dto.EmployeeResponseDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Retries an unconditional update when it loses an optimistic-locking race. Every attempt runs in a new
+ * transaction and re-reads the employee, so the allowance notification is computed from the values that are
+ * actually being replaced.
+ */
+@Service
+public class EmployeeUpdateRetryService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeUpdateRetryService.class);
+    private static final long BASE_BACKOFF_MILLIS = 10;
+
+    private final EmployeeService employeeService;
+    private final int maxAttempts;
+
+    public EmployeeUpdateRetryService(EmployeeService employeeService,
+                                      @Value("${employee.update.max-attempts}") int maxAttempts) {
+        this.employeeService = employeeService;
+        this.maxAttempts = maxAttempts;
+    }
+
+    public EmployeeResponseDTO updateEmployee(Long employeeId, EmployeeRequestDTO request) {
+        return retry(employeeId, () -> employeeService.updateEmployee(employeeId, null, request));
+    }
+
+    public EmployeeResponseDTO patchEmployee(Long employeeId, EmployeePatchRequestDTO patch) {
+        return retry(employeeId, () -> employeeService.patchEmployee(employeeId, null, patch));
+    }
+
+    /**
+     * Retries an update that runs in a larger transaction of the caller's, e.g. together with its idempotency
+     * record. {@code update} has to start that transaction itself, so every attempt still gets a new one.
+     */
+    public <T> T retry(Long employeeId, Supplier<T> update) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return update.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.info("Update of employeeId={} conflicted on attempt={}, retrying", employeeId, attempt);
+                backOff(attempt, e);
+            }
+        }
+    }
+
+    private static void backOff(int attempt, OptimisticLockingFailureException conflict) {
+        try {
+            Thread.sleep(BASE_BACKOFF_MILLIS * attempt + ThreadLocalRandom.current().nextLong(BASE_BACKOFF_MILLIS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package io.aslan.employeeservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.aslan.employeeservice.domain.dto.EmployeeResponseDTO;
+import io.aslan.employeeservice.domain.entity.IdempotencyRecord;
+import io.aslan.employeeservice.exception.IdempotencyKeyInProgressException;
+import io.aslan.employeeservice.exception.IdempotencyKeyReusedException;
+import io.aslan.employeeservice.exception.InvalidRequestException;
+import io.aslan.employeeservice.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs a create or update at most once per {@code Idempotency-Key} and replays its response to retries for
+ * {@code employee.idempotency.ttl}.
+ * <p>
+ * Duplicates arriving on the same node wait on the first request's in-memory future. Across nodes the
+ * {@code idempotency_record} row decides: whoever inserts it executes the request, everyone else polls it until
+ * the response is stored. The request runs in one transaction with the stored response and keeps the row locked
+ * until it commits, so the write and its COMPLETED record are visible together and a slow request can't be taken
+ * over while it runs. A request that fails releases its key so the client can retry it. A node that dies
+ * mid-request rolls back with its row still IN_PROGRESS; once {@code employee.idempotency.lease} has run out a
+ * retry takes it over and runs the request again, as it was never applied.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Duration INITIAL_POLL_INTERVAL = Duration.ofMillis(50);
+    private static final Duration MAX_POLL_INTERVAL = Duration.ofMillis(500);
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration lease;
+    private final Duration waitTimeout;
+    private final Map<String, InFlight> local;
+
+    private final Counter executedCounter;
+    private final Counter replayedCounter;
+    private final Counter rejectedCounter;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              TransactionTemplate transactionTemplate,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${employee.idempotency.ttl}") Duration ttl,
+                              @Value("${employee.idempotency.lease}") Duration lease,
+                              @Value("${employee.idempotency.wait-timeout}") Duration waitTimeout,
+                              @Value("${employee.idempotency.local-max-size}") long localMaxSize) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.lease = lease;
+        this.waitTimeout = waitTimeout;
+        this.local = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(localMaxSize)
+                .<String, InFlight>build()
+                .asMap();
+
+        this.executedCounter = meterRegistry.counter("employee.idempotency.requests", "outcome", "executed");
+        this.replayedCounter = meterRegistry.counter("employee.idempotency.requests", "outcome", "replayed");
+        this.rejectedCounter = meterRegistry.counter("employee.idempotency.requests", "outcome", "rejected");
+    }
+
+    /**
+     * @param method  and {@code path}, {@code ifMatch} and {@code request} identify the request: reusing the key
+     *                for anything else is rejected with 422
+     * @param action  runs the request and returns the response to store. It joins the transaction that stores
+     *                the response, so it must not commit on its own
+     */
+    public Response execute(String idempotencyKey, String method, String path, String ifMatch, Object request,
+                            Supplier<Response> action) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(method, path, ifMatch, request);
+
+        InFlight mine = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight existing = local.putIfAbsent(idempotencyKey, mine);
+        if (existing != null) {
+            checkSameRequest(idempotencyKey, existing.requestHash(), requestHash);
+            Response response = await(idempotencyKey, existing.response());
+            replayedCounter.increment();
+            return response.asReplay();
+        }
+
+        try {
+            Response response = executeOnce(idempotencyKey, requestHash, action, System.nanoTime() + waitTimeout.toNanos());
+            mine.response().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            local.remove(idempotencyKey, mine);
+            mine.response().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${employee.idempotency.cleanup-interval}")
+    public void deleteExpired() {
+        Integer deleted = transactionTemplate.execute(status -> idempotencyRecordRepository.deleteExpired(LocalDateTime.now()));
+        if (deleted != null && deleted > 0) {
+            log.info("Deleted {} expired idempotency records", deleted);
+        }
+    }
+
+    private Response executeOnce(String idempotencyKey, String requestHash, Supplier<Response> action, long deadline) {
+        // identifies this owner of the key, at the precision Postgres stores it with
+        LocalDateTime acquiredAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        if (!acquire(idempotencyKey, requestHash, acquiredAt)) {
+            return waitForOtherNode(idempotencyKey, requestHash, action, deadline);
+        }
+
+        Response response;
+        try {
+            response = transactionTemplate.execute(status -> executeAndComplete(idempotencyKey, acquiredAt, action));
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.release(idempotencyKey, acquiredAt));
+            throw e;
+        }
+        executedCounter.increment();
+        return response;
+    }
+
+    private Response executeAndComplete(String idempotencyKey, LocalDateTime acquiredAt, Supplier<Response> action) {
+        if (idempotencyRecordRepository.lock(idempotencyKey, acquiredAt, LocalDateTime.now().plus(lease)) == 0) {
+            throw new IdempotencyKeyInProgressException("Request with Idempotency-Key " + idempotencyKey + " was taken over by a retry");
+        }
+        Response response = action.get();
+        idempotencyRecordRepository.complete(idempotencyKey, IdempotencyRecord.Status.COMPLETED, response.status(),
+                toJson(response.body()));
+        return response;
+    }
+
+    private boolean acquire(String idempotencyKey, String requestHash, LocalDateTime now) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                idempotencyRecordRepository.insertIfAbsent(idempotencyKey, requestHash, now, now.plus(lease), now.plus(ttl)) == 1
+                        || idempotencyRecordRepository.takeOver(idempotencyKey, requestHash, now, now.plus(lease), now.plus(ttl)) == 1));
+    }
+
+    private Response waitForOtherNode(String idempotencyKey, String requestHash, Supplier<Response> action, long deadline) {
+        Duration pollInterval = INITIAL_POLL_INTERVAL;
+        while (true) {
+            Optional<IdempotencyRecord> found = idempotencyRecordRepository.findById(idempotencyKey);
+            LocalDateTime now = LocalDateTime.now();
+            // released after a failure, expired, or abandoned by a dead node: try to run it here
+            if (found.isEmpty()
+                    || !found.get().getExpiresAt().isAfter(now)
+                    || found.get().getStatus() == IdempotencyRecord.Status.IN_PROGRESS && !found.get().getLockedUntil().isAfter(now)) {
+                return executeOnce(idempotencyKey, requestHash, action, deadline);
+            }
+
+            IdempotencyRecord record = found.get();
+            checkSameRequest(idempotencyKey, record.getRequestHash(), requestHash);
+            if (record.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+                replayedCounter.increment();
+                return new Response(record.getResponseStatus(), fromJson(record.getResponseBody()), true);
+            }
+
+            if (System.nanoTime() - deadline > 0) {
+                throw new IdempotencyKeyInProgressException("Request with Idempotency-Key " + idempotencyKey + " is still in progress");
+            }
+            sleep(idempotencyKey, pollInterval);
+            Duration doubled = pollInterval.multipliedBy(2);
+            pollInterval = doubled.compareTo(MAX_POLL_INTERVAL) > 0 ? MAX_POLL_INTERVAL : doubled;
+        }
+    }
+
+    private Response await(String idempotencyKey, CompletableFuture<Response> response) {
+        try {
+            return response.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInProgressException("Request with Idempotency-Key " + idempotencyKey + " is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException("Interrupted waiting for Idempotency-Key " + idempotencyKey);
+        } catch (ExecutionException e) {
+            // the duplicate gets the same error as the request it waited for
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void checkSameRequest(String idempotencyKey, String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            rejectedCounter.increment();
+            throw new IdempotencyKeyReusedException("Idempotency-Key " + idempotencyKey + " was already used for a different request");
+        }
+    }
+
+    private static void sleep(String idempotencyKey, Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException("Interrupted waiting for Idempotency-Key " + idempotencyKey);
+        }
+    }
+
+    private String hash(String method, String path, String ifMatch, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((method + ' ' + path + '\n' + (ifMatch == null ? "" : ifMatch) + '\n').getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private String toJson(EmployeeResponseDTO body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private EmployeeResponseDTO fromJson(String body) {
+        try {
+            return objectMapper.readValue(body, EmployeeResponseDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @param replayed true when the response was stored by an earlier request with the same key
+     */
+    public record Response(int status, EmployeeResponseDTO body, boolean replayed) {
+
+        public Response(int status, EmployeeResponseDTO body) {
+            this(status, body, false);
+        }
+
+        Response asReplay() {
+            return new Response(status, body, true);
+        }
+    }
+
+    private record InFlight(String requestHash, CompletableFuture<Response> response) {
+    }
+}
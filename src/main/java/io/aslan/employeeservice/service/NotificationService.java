@@ -2,34 +2,59 @@ package io.aslan.employeeservice.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.aslan.employeeservice.domain.entity.AllowanceOutboxMessage;
 import io.aslan.employeeservice.domain.entity.Employee;
 import io.aslan.employeeservice.domain.message.AllowanceUpdateMessage;
-import io.awspring.cloud.sqs.operations.SqsTemplate;
+import io.aslan.employeeservice.repository.AllowanceOutboxRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
+/**
+ * Queues allowance update messages in the outbox table. The message only becomes visible to
+ * {@link AllowanceOutboxRelay} when the caller's transaction commits.
+ * <p>
+ * With a non-zero {@code notification.coalescing.window}, a change for an employee whose previous message is
+ * still waiting inside the window is merged into that message: it keeps the original current allowance and
+ * takes the new one, and is dropped when the two are equal again. The relay only sends a message once its
+ * window has passed, so an employee gets one notification per window.
+ */
 @Service
 public class NotificationService {
 
     private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
 
-    private final String notificationServiceQueueUrl;
-    private final SqsTemplate sqsTemplate;
+    private final AllowanceOutboxRepository allowanceOutboxRepository;
     private final ObjectMapper objectMapper;
+    private final Duration coalescingWindow;
+    private final Counter coalescedCounter;
+    private final Counter droppedCounter;
 
-    public NotificationService(@Value("${notification.service.queue.url}") String notificationServiceQueueUrl,
-                               SqsTemplate sqsTemplate,
-                               ObjectMapper objectMapper) {
-        this.notificationServiceQueueUrl = notificationServiceQueueUrl;
-        this.sqsTemplate = sqsTemplate;
+    public NotificationService(AllowanceOutboxRepository allowanceOutboxRepository,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${notification.coalescing.window}") Duration coalescingWindow) {
+        this.allowanceOutboxRepository = allowanceOutboxRepository;
         this.objectMapper = objectMapper;
+        this.coalescingWindow = coalescingWindow;
+        this.coalescedCounter = meterRegistry.counter("notification.coalesced", "outcome", "merged");
+        this.droppedCounter = meterRegistry.counter("notification.coalesced", "outcome", "dropped");
     }
 
+    @Timed(value = "notification.enqueue", histogram = true)
+    @Transactional(propagation = Propagation.MANDATORY)
     public void sendAllowanceUpdateMessage(Employee employee,
                                            BigDecimal currentMonthlyAllowance,
                                            BigDecimal newMonthlyAllowance) {
@@ -41,11 +66,65 @@ public class NotificationService {
                 newMonthlyAllowance,
                 employee.getEmail());
 
-        sqsTemplate.send(notificationServiceQueueUrl, MessageBuilder.withPayload(toJson(payload))
-                .setHeader("contentType", "application/json")
-                .build());
+        LocalDateTime now = LocalDateTime.now();
+        if (!coalescingWindow.isZero() && coalesce(payload, now)) {
+            return;
+        }
+        allowanceOutboxRepository.save(toOutboxMessage(payload, now));
+
+        log.info("Queued allowance update message={}", payload);
+    }
+
+    /**
+     * Queues many messages at once, e.g. for a salary review. The relay sends them in SQS batches.
+     */
+    @Timed(value = "notification.enqueue.batch", histogram = true)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void sendAllowanceUpdateMessages(List<AllowanceUpdateMessage> payloads) {
+        LocalDateTime now = LocalDateTime.now();
+        allowanceOutboxRepository.saveAll(payloads.stream()
+                .map(payload -> toOutboxMessage(payload, now))
+                .toList());
+
+        log.info("Queued {} allowance update messages", payloads.size());
+    }
+
+    private boolean coalesce(AllowanceUpdateMessage payload, LocalDateTime now) {
+        Optional<AllowanceOutboxMessage> pending = allowanceOutboxRepository.lockCoalescible(payload.id(), now.minus(coalescingWindow));
+        if (pending.isEmpty()) {
+            return false;
+        }
+
+        AllowanceOutboxMessage message = pending.get();
+        AllowanceUpdateMessage previous = fromJson(message.getPayload());
+        if (previous.currentMonthlyAllowance().compareTo(payload.newMonthlyAllowance()) == 0) {
+            allowanceOutboxRepository.delete(message);
+            droppedCounter.increment();
+            log.info("Dropped allowance update message for employeeId={}, the allowance is back at {}",
+                    payload.id(), payload.newMonthlyAllowance());
+            return true;
+        }
+
+        AllowanceUpdateMessage merged = new AllowanceUpdateMessage(
+                payload.id(),
+                payload.firstName(),
+                payload.lastName(),
+                previous.currentMonthlyAllowance(),
+                payload.newMonthlyAllowance(),
+                payload.email());
+        message.setPayload(toJson(merged));
+        coalescedCounter.increment();
+        log.info("Coalesced allowance update message={}", merged);
+        return true;
+    }
 
-        log.info("Sent allowance update message={}", payload);
+    private AllowanceOutboxMessage toOutboxMessage(AllowanceUpdateMessage payload, LocalDateTime now) {
+        AllowanceOutboxMessage message = new AllowanceOutboxMessage();
+        message.setEmployeeId(payload.id());
+        message.setPayload(toJson(payload));
+        message.setCreatedAt(now);
+        message.setNextAttemptAt(now);
+        return message;
     }
 
     private String toJson(Object payload) {
@@ -56,4 +135,12 @@ public class NotificationService {
         }
     }
 
+    private AllowanceUpdateMessage fromJson(String payload) {
+        try {
+            return objectMapper.readValue(payload, AllowanceUpdateMessage.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
 }
@@ -0,0 +1,43 @@
+package io.aslan.employeeservice.service;
+
+import io.aslan.employeeservice.domain.dto.SalaryHistoryDTO;
+import io.aslan.employeeservice.exception.InvalidRequestException;
+import io.aslan.employeeservice.repository.EmployeeSalaryHistoryRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reads the salary history written by {@link SalaryHistoryWriter}. Changes show up shortly after they commit.
+ */
+@Service
+public class SalaryHistoryService {
+
+    private final EmployeeSalaryHistoryRepository employeeSalaryHistoryRepository;
+
+    public SalaryHistoryService(EmployeeSalaryHistoryRepository employeeSalaryHistoryRepository) {
+        this.employeeSalaryHistoryRepository = employeeSalaryHistoryRepository;
+    }
+
+    /**
+     * @return the employee's changes, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<SalaryHistoryDTO> getEmployeeHistory(Long employeeId, Pageable pageable) {
+        return employeeSalaryHistoryRepository.findByEmployeeId(employeeId, pageable).getContent();
+    }
+
+    /**
+     * @return all changes made from {@code from} (inclusive) to {@code to} (exclusive), oldest first
+     */
+    @Transactional(readOnly = true)
+    public List<SalaryHistoryDTO> getChanges(LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        if (!from.isBefore(to)) {
+            throw new InvalidRequestException("from must be before to");
+        }
+        return employeeSalaryHistoryRepository.findChangedBetween(from, to, pageable).getContent();
+    }
+}
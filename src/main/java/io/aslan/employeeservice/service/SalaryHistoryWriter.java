@@ -0,0 +1,187 @@
+package io.aslan.employeeservice.service;
+
+import io.aslan.employeeservice.domain.entity.EmployeeSalaryHistory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes salary history off the request path. Changes are queued once the transaction that made them commits,
+ * and a single background thread inserts whatever has accumulated as one JDBC batch of up to
+ * {@code employee.salary-history.batch-size} rows. When the queue ({@code employee.salary-history.queue-capacity})
+ * is full the caller writes its own rows instead, so a backlog slows writers down rather than losing history.
+ * <p>
+ * Queued rows are written on shutdown, but the ones still queued when the process is killed are lost.
+ */
+@Component
+public class SalaryHistoryWriter implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(SalaryHistoryWriter.class);
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+    private static final String INSERT = """
+            insert into employee_salary_history (employee_id, old_annual_salary, new_annual_salary,
+                                                 old_salary_allowance_percentage, new_salary_allowance_percentage,
+                                                 changed_at, source)
+            values (?, ?, ?, ?, ?, ?, ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<SalaryChange> queue;
+    private final int batchSize;
+    private final Timer batchTimer;
+    private final Counter writtenCounter;
+    private final Counter overflowCounter;
+    private final Counter failedCounter;
+    private volatile boolean running;
+    private Thread writer;
+
+    public SalaryHistoryWriter(JdbcTemplate jdbcTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${employee.salary-history.queue-capacity}") int queueCapacity,
+                               @Value("${employee.salary-history.batch-size}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.batchTimer = Timer.builder("employee.salary.history.write")
+                .description("Salary history batch inserts")
+                .register(meterRegistry);
+        this.writtenCounter = meterRegistry.counter("employee.salary.history.written");
+        this.overflowCounter = meterRegistry.counter("employee.salary.history.overflow");
+        this.failedCounter = meterRegistry.counter("employee.salary.history.failed");
+        Gauge.builder("employee.salary.history.queued", queue, BlockingQueue::size)
+                .description("Salary changes waiting to be written")
+                .register(meterRegistry);
+    }
+
+    public void record(SalaryChange change) {
+        recordAll(List.of(change));
+    }
+
+    /**
+     * Queues the changes when the current transaction commits, or right away without one.
+     */
+    public void recordAll(List<SalaryChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(changes);
+                }
+            });
+        } else {
+            enqueue(changes);
+        }
+    }
+
+    private void enqueue(List<SalaryChange> changes) {
+        List<SalaryChange> overflow = null;
+        for (SalaryChange change : changes) {
+            if (!running || !queue.offer(change)) {
+                if (overflow == null) {
+                    overflow = new ArrayList<>();
+                }
+                overflow.add(change);
+            }
+        }
+        if (overflow != null) {
+            overflowCounter.increment(overflow.size());
+            write(overflow);
+        }
+    }
+
+    private void run() {
+        List<SalaryChange> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                SalaryChange first = queue.poll(POLL_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<SalaryChange> batch) {
+        try {
+            batchTimer.record(() -> jdbcTemplate.batchUpdate(INSERT, batch, batch.size(), (statement, change) -> {
+                statement.setLong(1, change.employeeId());
+                statement.setBigDecimal(2, change.oldAnnualSalary());
+                statement.setBigDecimal(3, change.newAnnualSalary());
+                statement.setBigDecimal(4, change.oldSalaryAllowancePercentage());
+                statement.setBigDecimal(5, change.newSalaryAllowancePercentage());
+                statement.setTimestamp(6, Timestamp.valueOf(change.changedAt()));
+                statement.setString(7, change.source().name());
+            }));
+            writtenCounter.increment(batch.size());
+        } catch (RuntimeException e) {
+            failedCounter.increment(batch.size());
+            log.error("Failed to write {} salary history rows for employeeIds={}", batch.size(),
+                    batch.stream().map(SalaryChange::employeeId).toList(), e);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform()
+                .name("salary-history-writer")
+                .daemon()
+                .start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            if (!writer.join(SHUTDOWN_TIMEOUT)) {
+                log.warn("Salary history writer did not finish within {}, {} rows were not written", SHUTDOWN_TIMEOUT, queue.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public record SalaryChange(long employeeId,
+                               BigDecimal oldAnnualSalary,
+                               BigDecimal newAnnualSalary,
+                               BigDecimal oldSalaryAllowancePercentage,
+                               BigDecimal newSalaryAllowancePercentage,
+                               LocalDateTime changedAt,
+                               EmployeeSalaryHistory.Source source) {
+    }
+}
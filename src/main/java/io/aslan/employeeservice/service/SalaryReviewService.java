@@ -0,0 +1,366 @@
+package io.aslan.employeeservice.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.aslan.employeeservice.config.CacheConfig;
+import io.aslan.employeeservice.config.ReadYourWritesGuard;
+import io.aslan.employeeservice.domain.dto.SalaryAdjustmentType;
+import io.aslan.employeeservice.domain.dto.SalaryReviewJobDTO;
+import io.aslan.employeeservice.domain.dto.SalaryReviewRequestDTO;
+import io.aslan.employeeservice.domain.entity.Employee;
+import io.aslan.employeeservice.domain.entity.EmployeeSalaryHistory;
+import io.aslan.employeeservice.domain.message.AllowanceUpdateMessage;
+import io.aslan.employeeservice.exception.InvalidRequestException;
+import io.aslan.employeeservice.exception.SalaryReviewJobNotFoundException;
+import io.aslan.employeeservice.repository.EmployeeSpecifications;
+import io.aslan.employeeservice.util.AllowanceCalculator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Applies a salary adjustment to many employees as a background job. The targeted ids are split into chunks that
+ * are processed in parallel, each in its own transaction: one query reads the chunk, the old and new allowances are
+ * calculated on minor units with {@link AllowanceCalculator#getMonthlyAllowances}, the salaries are written with a
+ * batched, version-checked UPDATE and the allowance changes are queued in the outbox together.
+ * <p>
+ * Jobs are only tracked in memory, so progress can be polled on the node that started the job.
+ */
+@Service
+public class SalaryReviewService {
+
+    private static final Logger log = LoggerFactory.getLogger(SalaryReviewService.class);
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+    private static final int SCALE = 2;
+    private static final Duration JOB_RETENTION = Duration.ofDays(1);
+
+    private static final String SELECT_CHUNK = """
+            select id, first_name, last_name, email, annual_salary, salary_allowance_percentage, version
+            from employee
+            where id = any(?)""";
+    private static final String UPDATE_SALARY = """
+            update employee
+            set annual_salary = ?, last_salary_changed_date = ?, version = version + 1
+            where id = ? and version = ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final NotificationService notificationService;
+    private final AllowanceCalculator allowanceCalculator;
+    private final Cache employeesCache;
+    private final ReadYourWritesGuard readYourWritesGuard;
+    private final SalaryHistoryWriter salaryHistoryWriter;
+    private final AllowanceSummaryService allowanceSummaryService;
+    private final AsyncTaskExecutor taskExecutor;
+    private final int chunkSize;
+    private final int parallelism;
+    private final Map<String, SalaryReviewJob> jobs = Caffeine.newBuilder()
+            .expireAfterWrite(JOB_RETENTION)
+            .<String, SalaryReviewJob>build()
+            .asMap();
+
+    public SalaryReviewService(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               EntityManager entityManager,
+                               NotificationService notificationService,
+                               AllowanceCalculator allowanceCalculator,
+                               CacheManager cacheManager,
+                               ReadYourWritesGuard readYourWritesGuard,
+                               SalaryHistoryWriter salaryHistoryWriter,
+                               AllowanceSummaryService allowanceSummaryService,
+                               @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) AsyncTaskExecutor taskExecutor,
+                               @Value("${employee.salary-review.chunk-size}") int chunkSize,
+                               @Value("${employee.salary-review.parallelism}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.notificationService = notificationService;
+        this.allowanceCalculator = allowanceCalculator;
+        this.employeesCache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE));
+        this.readYourWritesGuard = readYourWritesGuard;
+        this.salaryHistoryWriter = salaryHistoryWriter;
+        this.allowanceSummaryService = allowanceSummaryService;
+        this.taskExecutor = taskExecutor;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    public SalaryReviewJobDTO startReview(SalaryReviewRequestDTO request) {
+        validate(request);
+        List<Long> employeeIds = request.ids() != null
+                ? new ArrayList<>(new LinkedHashSet<>(request.ids()))
+                : findEmployeeIds(request);
+
+        SalaryReviewJob job = new SalaryReviewJob(UUID.randomUUID().toString(), employeeIds.size());
+        jobs.put(job.id, job);
+        log.info("Starting salary review jobId={} for {} employees, adjustmentType={} amount={}",
+                job.id, employeeIds.size(), request.adjustmentType(), request.amount());
+        taskExecutor.execute(() -> run(job, employeeIds, request));
+        return job.toDTO();
+    }
+
+    public SalaryReviewJobDTO getJob(String jobId) {
+        SalaryReviewJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new SalaryReviewJobNotFoundException("Could not find salary review job with id=" + jobId);
+        }
+        return job.toDTO();
+    }
+
+    private void validate(SalaryReviewRequestDTO request) {
+        if ((request.ids() == null) == (request.filter() == null)) {
+            throw new InvalidRequestException("Exactly one of ids or filter must be given");
+        }
+        if (request.ids() != null && (request.ids().isEmpty() || request.ids().contains(null))) {
+            throw new InvalidRequestException("ids must not be empty or contain null");
+        }
+        if (request.adjustmentType() == null || request.amount() == null || request.amount().signum() == 0) {
+            throw new InvalidRequestException("adjustmentType and a non-zero amount are required");
+        }
+        if (request.adjustmentType() == SalaryAdjustmentType.PERCENTAGE && request.amount().compareTo(ONE_HUNDRED.negate()) <= 0) {
+            throw new InvalidRequestException("A percentage adjustment must be greater than -100");
+        }
+    }
+
+    private List<Long> findEmployeeIds(SalaryReviewRequestDTO request) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<Employee> root = query.from(Employee.class);
+        query.select(root.get("id"))
+                .where(EmployeeSpecifications.matching(request.filter()).toPredicate(root, query, builder))
+                .orderBy(builder.asc(root.get("id")));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private void run(SalaryReviewJob job, List<Long> employeeIds, SalaryReviewRequestDTO request) {
+        Queue<List<Long>> chunks = new ConcurrentLinkedQueue<>();
+        for (int from = 0; from < employeeIds.size(); from += chunkSize) {
+            chunks.add(employeeIds.subList(from, Math.min(from + chunkSize, employeeIds.size())));
+        }
+
+        try {
+            // this thread works on chunks too, so a job always makes progress even if the executor is saturated
+            Runnable worker = () -> {
+                List<Long> chunk;
+                while (!job.isFailed() && (chunk = chunks.poll()) != null) {
+                    reviewChunk(job, chunk, request);
+                }
+            };
+            int helpers = Math.min(parallelism, chunks.size()) - 1;
+            List<CompletableFuture<Void>> futures = new ArrayList<>(Math.max(helpers, 0));
+            for (int i = 0; i < helpers; i++) {
+                futures.add(CompletableFuture.runAsync(worker, taskExecutor));
+            }
+            worker.run();
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+            job.complete();
+            log.info("Completed salary review jobId={}: updated={} skipped={}", job.id, job.updated.get(), job.skipped.get());
+        } catch (RuntimeException e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            job.fail(cause.getMessage());
+            log.error("Salary review jobId={} failed after processing {} employees", job.id, job.processed.get(), cause);
+        }
+    }
+
+    private void reviewChunk(SalaryReviewJob job, List<Long> chunk, SalaryReviewRequestDTO request) {
+        List<Long> updatedIds;
+        try {
+            updatedIds = transactionTemplate.execute(status -> applyAdjustment(chunk, request));
+        } catch (RuntimeException e) {
+            job.fail(e.getMessage());
+            throw e;
+        }
+
+        // the transaction has committed, so a reader can't cache the old salary again
+        updatedIds.forEach(employeeId -> {
+            readYourWritesGuard.recordWrite(employeeId);
+            employeesCache.evict(employeeId);
+        });
+        job.addProgress(chunk.size(), updatedIds.size());
+    }
+
+    private List<Long> applyAdjustment(List<Long> chunk, SalaryReviewRequestDTO request) {
+        List<EmployeeSalary> employees = jdbcTemplate.query(SELECT_CHUNK,
+                statement -> statement.setArray(1, statement.getConnection().createArrayOf("bigint", chunk.toArray())),
+                (resultSet, rowNum) -> new EmployeeSalary(
+                        resultSet.getLong("id"),
+                        resultSet.getString("first_name"),
+                        resultSet.getString("last_name"),
+                        resultSet.getString("email"),
+                        resultSet.getBigDecimal("annual_salary"),
+                        resultSet.getBigDecimal("salary_allowance_percentage"),
+                        resultSet.getLong("version")));
+
+        List<EmployeeSalary> adjustable = new ArrayList<>(employees.size());
+        List<BigDecimal> newSalaries = new ArrayList<>(employees.size());
+        for (EmployeeSalary employee : employees) {
+            BigDecimal newSalary = adjust(employee.annualSalary(), request);
+            if (newSalary.signum() >= 0) {
+                adjustable.add(employee);
+                newSalaries.add(newSalary);
+            }
+        }
+
+        int size = adjustable.size();
+        BigDecimal[] oldSalaries = new BigDecimal[size];
+        BigDecimal[] percentages = new BigDecimal[size];
+        for (int i = 0; i < size; i++) {
+            oldSalaries[i] = adjustable.get(i).annualSalary();
+            percentages[i] = adjustable.get(i).salaryAllowancePercentage();
+        }
+        BigDecimal[] currentAllowances = getMonthlyAllowances(oldSalaries, percentages);
+        BigDecimal[] newAllowances = getMonthlyAllowances(newSalaries.toArray(BigDecimal[]::new), percentages);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> updates = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            EmployeeSalary employee = adjustable.get(i);
+            updates.add(new Object[]{newSalaries.get(i), now, employee.id(), employee.version()});
+        }
+        int[] updateCounts = jdbcTemplate.batchUpdate(UPDATE_SALARY, updates);
+
+        List<Long> updatedIds = new ArrayList<>(size);
+        List<AllowanceUpdateMessage> messages = new ArrayList<>(size);
+        List<SalaryHistoryWriter.SalaryChange> salaryChanges = new ArrayList<>(size);
+        List<AllowanceSummaryService.Contribution> removedContributions = new ArrayList<>(size);
+        List<AllowanceSummaryService.Contribution> addedContributions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            // 0 means someone else updated the employee after the chunk was read
+            if (updateCounts[i] == 0) {
+                continue;
+            }
+            EmployeeSalary employee = adjustable.get(i);
+            updatedIds.add(employee.id());
+            salaryChanges.add(new SalaryHistoryWriter.SalaryChange(employee.id(), employee.annualSalary(), newSalaries.get(i),
+                    employee.salaryAllowancePercentage(), employee.salaryAllowancePercentage(), now,
+                    EmployeeSalaryHistory.Source.SALARY_REVIEW));
+            removedContributions.add(new AllowanceSummaryService.Contribution(employee.annualSalary(),
+                    employee.salaryAllowancePercentage(), currentAllowances[i]));
+            addedContributions.add(new AllowanceSummaryService.Contribution(newSalaries.get(i),
+                    employee.salaryAllowancePercentage(), newAllowances[i]));
+            if (currentAllowances[i].compareTo(newAllowances[i]) != 0) {
+                messages.add(new AllowanceUpdateMessage(employee.id(), employee.firstName(), employee.lastName(),
+                        currentAllowances[i], newAllowances[i], employee.email()));
+            }
+        }
+        if (!messages.isEmpty()) {
+            notificationService.sendAllowanceUpdateMessages(messages);
+        }
+        salaryHistoryWriter.recordAll(salaryChanges);
+        allowanceSummaryService.apply(removedContributions, addedContributions);
+        return updatedIds;
+    }
+
+    private BigDecimal[] getMonthlyAllowances(BigDecimal[] annualSalaries, BigDecimal[] percentages) {
+        int size = annualSalaries.length;
+        long[] annualSalariesMinorUnits = new long[size];
+        long[] percentagesMinorUnits = new long[size];
+        long[] allowancesMinorUnits = new long[size];
+        for (int i = 0; i < size; i++) {
+            annualSalariesMinorUnits[i] = allowanceCalculator.toMinorUnits(annualSalaries[i]);
+            percentagesMinorUnits[i] = allowanceCalculator.toMinorUnits(percentages[i]);
+        }
+        allowanceCalculator.getMonthlyAllowances(annualSalariesMinorUnits, percentagesMinorUnits, allowancesMinorUnits);
+
+        BigDecimal[] allowances = new BigDecimal[size];
+        for (int i = 0; i < size; i++) {
+            boolean fitsMinorUnits = annualSalariesMinorUnits[i] != AllowanceCalculator.OVERFLOW
+                    && percentagesMinorUnits[i] != AllowanceCalculator.OVERFLOW
+                    && allowancesMinorUnits[i] != AllowanceCalculator.OVERFLOW;
+            allowances[i] = fitsMinorUnits
+                    ? BigDecimal.valueOf(allowancesMinorUnits[i], SCALE)
+                    : allowanceCalculator.getMonthlyAllowance(annualSalaries[i], percentages[i]);
+        }
+        return allowances;
+    }
+
+    private static BigDecimal adjust(BigDecimal annualSalary, SalaryReviewRequestDTO request) {
+        return switch (request.adjustmentType()) {
+            case ABSOLUTE -> annualSalary.add(request.amount()).setScale(SCALE, RoundingMode.HALF_UP);
+            case PERCENTAGE -> annualSalary.multiply(ONE_HUNDRED.add(request.amount()))
+                    .divide(ONE_HUNDRED, SCALE, RoundingMode.HALF_UP);
+        };
+    }
+
+    private record EmployeeSalary(long id,
+                                  String firstName,
+                                  String lastName,
+                                  String email,
+                                  BigDecimal annualSalary,
+                                  BigDecimal salaryAllowancePercentage,
+                                  long version) {
+    }
+
+    private static final class SalaryReviewJob {
+
+        private final String id;
+        private final int total;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicInteger processed = new AtomicInteger();
+        private final AtomicInteger updated = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private volatile SalaryReviewJobDTO.Status status = SalaryReviewJobDTO.Status.RUNNING;
+        private volatile String error;
+        private volatile LocalDateTime completedAt;
+
+        private SalaryReviewJob(String id, int total) {
+            this.id = id;
+            this.total = total;
+        }
+
+        private void addProgress(int chunkSize, int updatedCount) {
+            updated.addAndGet(updatedCount);
+            skipped.addAndGet(chunkSize - updatedCount);
+            processed.addAndGet(chunkSize);
+        }
+
+        private boolean isFailed() {
+            return status == SalaryReviewJobDTO.Status.FAILED;
+        }
+
+        private void complete() {
+            completedAt = LocalDateTime.now();
+            status = SalaryReviewJobDTO.Status.COMPLETED;
+        }
+
+        private void fail(String message) {
+            error = message;
+            completedAt = LocalDateTime.now();
+            status = SalaryReviewJobDTO.Status.FAILED;
+        }
+
+        private SalaryReviewJobDTO toDTO() {
+            return new SalaryReviewJobDTO(id, status, total, processed.get(), updated.get(), skipped.get(), error,
+                    startedAt, completedAt);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package io.aslan.employeeservice.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A concurrency limit that adapts to latency, in the style of Netflix's gradient limiter.
+ * <p>
+ * Every completed request is a round-trip-time sample. A short-term average of them is compared with a long-term
+ * one: while the short-term RTT stays within {@code rttTolerance} of the long-term RTT the limit grows by its square
+ * root (additive increase). Once requests start queueing the short-term RTT rises and the limit shrinks in proportion
+ * (by at most half per sample). A dropped request (a 5xx, e.g. a Hikari connection timeout) cuts the limit by 10%
+ * (multiplicative decrease). The limit only grows while at least half of it is in use, so a quiet period doesn't let
+ * it drift up to the maximum.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final double SHORT_RTT_SMOOTHING = 2.0 / (10 + 1);
+    private static final double LONG_RTT_SMOOTHING = 2.0 / (600 + 1);
+    private static final double LIMIT_SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // updated under the lock, read without it
+    private volatile double limit;
+    private final ReentrantLock lock = new ReentrantLock();
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double rttTolerance) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (rttTolerance < 1) {
+            throw new IllegalArgumentException("RTT tolerance must be at least 1");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+    }
+
+    /**
+     * @return true if the request may run, in which case it must be followed by {@link #release}
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param rttNanos how long the request took
+     * @param dropped  true if it failed in a way that indicates overload
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        lock.lock();
+        try {
+            if (dropped) {
+                limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+                return;
+            }
+            update(rttNanos, inFlightBefore);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void update(long rttNanos, int inFlightBefore) {
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+        }
+        shortRttNanos += SHORT_RTT_SMOOTHING * (rttNanos - shortRttNanos);
+        longRttNanos += LONG_RTT_SMOOTHING * (rttNanos - longRttNanos);
+        // after a slow period the long-term RTT lags far behind, pull it down so the limit can recover
+        if (longRttNanos > 2 * shortRttNanos) {
+            longRttNanos *= 0.95;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, rttTolerance * longRttNanos / shortRttNanos));
+        if (gradient == 1.0 && inFlightBefore < limit / 2) {
+            return;
+        }
+        double newLimit = limit * gradient + (gradient == 1.0 ? Math.sqrt(limit) : 0);
+        newLimit = limit * (1 - LIMIT_SMOOTHING) + newLimit * LIMIT_SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+}
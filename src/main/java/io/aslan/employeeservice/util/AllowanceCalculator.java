@@ -5,12 +5,97 @@ import org.springframework.stereotype.Component;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 
+/**
+ * Monthly allowance = annual salary * percentage / 100 rounded HALF_UP to 2 decimals, then / 12 rounded
+ * HALF_UP to 2 decimals.
+ * <p>
+ * Amounts with at most 2 decimals are calculated on {@code long} minor units (cents, hundredths of a percent),
+ * which gives exactly the same result as the {@link BigDecimal} arithmetic without its allocations. Anything
+ * that doesn't fit falls back to {@link BigDecimal}.
+ */
 @Component
 public class AllowanceCalculator {
 
+    /**
+     * Returned by the minor-unit methods when a value doesn't fit in a {@code long}. It can never be a real
+     * allowance because the result is always at least 120000 times smaller than the product it comes from.
+     */
+    public static final long OVERFLOW = Long.MIN_VALUE;
+
+    private static final int SCALE = 2;
+    // keeps value * 100 below Long.MAX_VALUE
+    private static final int MAX_INTEGER_DIGITS = 16;
+    private static final long MINOR_UNITS = 100;
+    // salary cents * percentage hundredths is in 10^-6, dividing by 10^4 (and the /100 of the percentage) gives cents
+    private static final long PRODUCT_TO_CENTS = 10_000;
+    private static final long MONTHS = 12;
+
     public BigDecimal getMonthlyAllowance(BigDecimal annualSalary, BigDecimal salaryAllowancePercentage) {
+        long annualSalaryMinorUnits = toMinorUnits(annualSalary);
+        long percentageMinorUnits = toMinorUnits(salaryAllowancePercentage);
+        if (annualSalaryMinorUnits != OVERFLOW && percentageMinorUnits != OVERFLOW) {
+            long monthlyAllowance = getMonthlyAllowance(annualSalaryMinorUnits, percentageMinorUnits);
+            if (monthlyAllowance != OVERFLOW) {
+                return BigDecimal.valueOf(monthlyAllowance, SCALE);
+            }
+        }
+        return getMonthlyAllowanceExact(annualSalary, salaryAllowancePercentage);
+    }
+
+    /**
+     * @param annualSalaryMinorUnits              annual salary in cents
+     * @param salaryAllowancePercentageMinorUnits percentage in hundredths of a percent
+     * @return the monthly allowance in cents, or {@link #OVERFLOW}
+     */
+    public long getMonthlyAllowance(long annualSalaryMinorUnits, long salaryAllowancePercentageMinorUnits) {
+        long high = Math.multiplyHigh(annualSalaryMinorUnits, salaryAllowancePercentageMinorUnits);
+        long product = annualSalaryMinorUnits * salaryAllowancePercentageMinorUnits;
+        if (high != (product >> 63)) {
+            return OVERFLOW;
+        }
+        return divideHalfUp(divideHalfUp(product, PRODUCT_TO_CENTS), MONTHS);
+    }
+
+    /**
+     * Array form of {@link #getMonthlyAllowance(long, long)} for recalculating many employees at once. The loop
+     * works on primitive arrays only, so it doesn't allocate and the JIT can unroll it. Entries that overflow are
+     * set to {@link #OVERFLOW} and should be recalculated with {@link #getMonthlyAllowance(BigDecimal, BigDecimal)}.
+     */
+    public void getMonthlyAllowances(long[] annualSalariesMinorUnits,
+                                     long[] salaryAllowancePercentagesMinorUnits,
+                                     long[] monthlyAllowancesMinorUnits) {
+        int length = monthlyAllowancesMinorUnits.length;
+        if (annualSalariesMinorUnits.length != length || salaryAllowancePercentagesMinorUnits.length != length) {
+            throw new IllegalArgumentException("Salary, percentage and allowance arrays must have the same length");
+        }
+        for (int i = 0; i < length; i++) {
+            monthlyAllowancesMinorUnits[i] = getMonthlyAllowance(annualSalariesMinorUnits[i], salaryAllowancePercentagesMinorUnits[i]);
+        }
+    }
+
+    /**
+     * @return the value in hundredths, or {@link #OVERFLOW} if it has more than 2 decimals or is too large
+     */
+    public long toMinorUnits(BigDecimal value) {
+        int scale = value.scale();
+        if (scale > SCALE || value.precision() - scale > MAX_INTEGER_DIGITS) {
+            return OVERFLOW;
+        }
+        if (scale == 0) {
+            return value.longValue() * MINOR_UNITS;
+        }
+        return value.movePointRight(SCALE).longValue();
+    }
+
+    private BigDecimal getMonthlyAllowanceExact(BigDecimal annualSalary, BigDecimal salaryAllowancePercentage) {
         return annualSalary.multiply(salaryAllowancePercentage)
                 .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP)
                 .divide(BigDecimal.valueOf(12), 2, RoundingMode.HALF_UP);
     }
+
+    private static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend - quotient * divisor;
+        return Math.abs(remainder) * 2 >= divisor ? quotient + Long.signum(dividend) : quotient;
+    }
 }
@@ -0,0 +1,76 @@
+package io.aslan.employeeservice.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.aslan.employeeservice.exception.InvalidRequestException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Turns a keyset scroll position into an opaque, URL-safe token and back. The token carries the sort
+ * property it was issued for, so a cursor can't be replayed against a different ordering.
+ */
+@Component
+public class EmployeeCursorCodec {
+
+    private final ObjectMapper objectMapper;
+
+    public EmployeeCursorCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public String encode(EmployeeSortKey sortKey, ScrollPosition position) {
+        Map<String, String> keys = new LinkedHashMap<>();
+        ((KeysetScrollPosition) position).getKeys()
+                .forEach((property, value) -> keys.put(property, value.toString()));
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(new Cursor(sortKey.property(), keys));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public ScrollPosition decode(String token, EmployeeSortKey sortKey) {
+        if (token == null || token.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        Cursor cursor = read(token);
+        if (!sortKey.property().equals(cursor.sort()) || cursor.keys() == null) {
+            throw new InvalidRequestException("Cursor was not issued for sort=" + sortKey.property());
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            for (String property : sortKey.keyProperties()) {
+                String value = cursor.keys().get(property);
+                if (value == null) {
+                    throw new InvalidRequestException("Malformed cursor");
+                }
+                keys.put(property, sortKey.parse(property, value));
+            }
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Malformed cursor");
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    private Cursor read(String token) {
+        try {
+            return objectMapper.readValue(Base64.getUrlDecoder().decode(token), Cursor.class);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new InvalidRequestException("Malformed cursor");
+        }
+    }
+
+    private record Cursor(String sort, Map<String, String> keys) {
+    }
+}
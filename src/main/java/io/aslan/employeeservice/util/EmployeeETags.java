@@ -0,0 +1,92 @@
+package io.aslan.employeeservice.util;
+
+import io.aslan.employeeservice.domain.dto.EmployeeResponseDTO;
+import io.aslan.employeeservice.exception.EmployeeVersionMismatchException;
+import io.aslan.employeeservice.exception.InvalidRequestException;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Strong entity tags for employees, derived from the optimistic-locking version. Every write path bumps the
+ * version, so the tag changes whenever the representation does. A single employee's tag also carries its id:
+ * a payroll id or email can move to another employee, whose version may well be the same.
+ */
+public final class EmployeeETags {
+
+    private static final String ANY = "*";
+
+    private EmployeeETags() {
+    }
+
+    public static String of(Long employeeId, Long version) {
+        return "\"" + employeeId + "-" + version + "\"";
+    }
+
+    /**
+     * A tag for a list of employees: a digest of their ids and versions in order, plus the cursor to the next page
+     * if there is one.
+     */
+    public static String of(List<EmployeeResponseDTO> employees, String nextCursor) {
+        StringBuilder validators = new StringBuilder(employees.size() * 16);
+        for (EmployeeResponseDTO employee : employees) {
+            validators.append(employee.id()).append(':').append(employee.version()).append(',');
+        }
+        if (nextCursor != null) {
+            validators.append(nextCursor);
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(validators.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Weak comparison against an {@code If-None-Match} list, so a tag weakened by response compression still
+     * matches.
+     */
+    public static boolean matchesIfNoneMatch(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = opaqueTag(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (ANY.equals(tag) || opaqueTag(tag).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaqueTag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    /**
+     * @return the version the {@code If-Match} header asks for, or null when the header is absent or {@code *}
+     * @throws EmployeeVersionMismatchException if the tag belongs to another employee
+     */
+    public static Long parseIfMatch(Long employeeId, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ANY.equals(ifMatch.trim())) {
+            return null;
+        }
+
+        String etag = ifMatch.trim();
+        int separator = etag.indexOf('-');
+        if (etag.length() < 5 || etag.charAt(0) != '"' || etag.charAt(etag.length() - 1) != '"' || separator < 0) {
+            throw new InvalidRequestException("If-Match must be a single strong entity tag, got " + ifMatch);
+        }
+        long taggedEmployeeId;
+        long version;
+        try {
+            taggedEmployeeId = Long.parseLong(etag.substring(1, separator));
+            version = Long.parseLong(etag.substring(separator + 1, etag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("If-Match must be a single strong entity tag, got " + ifMatch);
+        }
+        if (taggedEmployeeId != employeeId) {
+            throw new EmployeeVersionMismatchException("If-Match " + ifMatch + " is a tag of employee with id="
+                    + taggedEmployeeId + ", not id=" + employeeId);
+        }
+        return version;
+    }
+}
@@ -18,7 +18,8 @@ public class EmployeeMapper {
                 employee.getEmail(),
                 employee.getPayrollId(),
                 employee.getAnnualSalary(),
-                employee.getSalaryAllowancePercentage());
+                employee.getSalaryAllowancePercentage(),
+                employee.getVersion());
     }
 
     public Employee map(EmployeeRequestDTO employeeRequestDTO) {
@@ -0,0 +1,55 @@
+package io.aslan.employeeservice.util;
+
+import io.aslan.employeeservice.exception.InvalidRequestException;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Columns the employee listing can seek on. Only non-null columns are allowed, and every key is tie-broken
+ * on the primary key so the (column, id) pair is unique.
+ */
+public enum EmployeeSortKey {
+
+    ID("id", Long::valueOf),
+    PAYROLL_ID("payrollId", value -> value),
+    EMAIL("email", value -> value),
+    ANNUAL_SALARY("annualSalary", BigDecimal::new),
+    SALARY_ALLOWANCE_PERCENTAGE("salaryAllowancePercentage", BigDecimal::new);
+
+    private static final String ID_PROPERTY = "id";
+
+    private final String property;
+    private final Function<String, Object> parser;
+
+    EmployeeSortKey(String property, Function<String, Object> parser) {
+        this.property = property;
+        this.parser = parser;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    public List<String> keyProperties() {
+        return this == ID ? List.of(ID_PROPERTY) : List.of(property, ID_PROPERTY);
+    }
+
+    public Sort sort() {
+        return this == ID ? Sort.by(ID_PROPERTY) : Sort.by(property, ID_PROPERTY);
+    }
+
+    Object parse(String keyProperty, String value) {
+        return ID_PROPERTY.equals(keyProperty) ? Long.valueOf(value) : parser.apply(value);
+    }
+
+    public static EmployeeSortKey fromProperty(String property) {
+        return Arrays.stream(values())
+                .filter(sortKey -> sortKey.property.equals(property))
+                .findFirst()
+                .orElseThrow(() -> new InvalidRequestException("Cursor pagination does not support sort=" + property));
+    }
+}
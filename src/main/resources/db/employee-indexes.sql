@@ -0,0 +1,9 @@
+-- Indexes for the employee search and salary history APIs. Runs after Hibernate has created the schema
+-- (spring.jpa.defer-datasource-initialization) and is safe to re-run on every start.
+CREATE INDEX IF NOT EXISTS idx_employee_last_name_prefix ON employee (lower(last_name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_employee_email_domain ON employee (reverse(lower(email)) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_employee_annual_salary ON employee (annual_salary, id);
+CREATE INDEX IF NOT EXISTS idx_employee_salary_allowance_percentage ON employee (salary_allowance_percentage, id);
+CREATE INDEX IF NOT EXISTS idx_employee_last_salary_changed_date ON employee (last_salary_changed_date, id);
+CREATE INDEX IF NOT EXISTS idx_employee_salary_history_employee ON employee_salary_history (employee_id, changed_at);
+CREATE INDEX IF NOT EXISTS idx_employee_salary_history_changed_at ON employee_salary_history (changed_at, id);
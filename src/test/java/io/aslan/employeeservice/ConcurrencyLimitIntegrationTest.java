@@ -0,0 +1,178 @@
+package io.aslan.employeeservice;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.parsing.Parser;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.localstack.LocalStackContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.CreateQueueRequest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.testcontainers.containers.localstack.LocalStackContainer.Service.SQS;
+
+/**
+ * Bursts writes at a Postgres that takes 50ms per inserted row, behind a 2-connection pool, while a few clients
+ * keep reading an employee, by id and through batch-get.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers
+class ConcurrencyLimitIntegrationTest {
+
+    private static final int WRITERS = 300;
+    private static final int READERS = 10;
+    private static final int READS_PER_READER = 30;
+
+    @Container
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+
+    @Container
+    static LocalStackContainer localStackContainer = new LocalStackContainer(DockerImageName.parse("localstack/localstack:3.5.0"));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void dataSourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> "2");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+
+        registry.add("spring.cloud.aws.region.static", () -> localStackContainer.getRegion());
+        registry.add("spring.cloud.aws.credentials.access-key", () -> localStackContainer.getAccessKey());
+        registry.add("spring.cloud.aws.credentials.secret-key", () -> localStackContainer.getSecretKey());
+        registry.add("spring.cloud.aws.sqs.endpoint", () -> localStackContainer.getEndpointOverride(SQS)
+                .toString());
+
+        SqsClient sqsClient = SqsClient.builder()
+                .region(Region.of(localStackContainer.getRegion()))
+                .endpointOverride(localStackContainer.getEndpointOverride(SQS))
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(localStackContainer.getAccessKey(), localStackContainer.getSecretKey())
+                ))
+                .build();
+        String queueUrl = sqsClient.createQueue(CreateQueueRequest.builder()
+                .queueName("notification-service-queue")
+                .build()).queueUrl();
+        registry.add("notification.service.queue.url", () -> queueUrl);
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.port = port;
+        RestAssured.defaultParser = Parser.JSON;
+    }
+
+    @Test
+    void testWriteBurstShouldBeShedWithoutFailingReads() throws Exception {
+        int employeeId = create("PAY-READ").then()
+                .statusCode(HttpStatus.CREATED.value())
+                .extract()
+                .jsonPath()
+                .getInt("id");
+        jdbcTemplate.execute("""
+                CREATE OR REPLACE FUNCTION slow_employee_write() RETURNS trigger AS $$
+                BEGIN
+                    PERFORM pg_sleep(0.05);
+                    RETURN NEW;
+                END $$ LANGUAGE plpgsql""");
+        jdbcTemplate.execute("""
+                CREATE OR REPLACE TRIGGER slow_employee_write BEFORE INSERT OR UPDATE ON employee
+                FOR EACH ROW EXECUTE FUNCTION slow_employee_write()""");
+
+        List<Response> writes = new ArrayList<>();
+        List<Integer> readStatuses = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Response>> writeFutures = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                String payrollId = "PAY" + i;
+                writeFutures.add(executor.submit(() -> create(payrollId)));
+            }
+            List<Future<List<Integer>>> readFutures = new ArrayList<>();
+            for (int i = 0; i < READERS; i++) {
+                readFutures.add(executor.submit(() -> {
+                    List<Integer> statuses = new ArrayList<>();
+                    for (int j = 0; j < READS_PER_READER; j++) {
+                        statuses.add(j % 2 == 0
+                                ? given().get("/api/v1/employee/" + employeeId).statusCode()
+                                : batchGet(employeeId).statusCode());
+                    }
+                    return statuses;
+                }));
+            }
+            for (Future<Response> write : writeFutures) {
+                writes.add(write.get());
+            }
+            for (Future<List<Integer>> read : readFutures) {
+                readStatuses.addAll(read.get());
+            }
+        }
+
+        List<Response> created = writes.stream().filter(response -> response.statusCode() == HttpStatus.CREATED.value()).toList();
+        List<Response> rejected = writes.stream().filter(response -> response.statusCode() == HttpStatus.SERVICE_UNAVAILABLE.value()).toList();
+        assertThat(created.size() + rejected.size()).isEqualTo(WRITERS);
+        assertThat(rejected).isNotEmpty()
+                .allSatisfy(response -> assertThat(response.getHeader("Retry-After")).isEqualTo("1"));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employee", Integer.class)).isEqualTo(created.size() + 1);
+        assertThat(readStatuses).hasSize(READERS * READS_PER_READER).containsOnly(HttpStatus.OK.value());
+
+        assertThat(meterRegistry.get("employee.concurrency.rejected").tag("type", "write").counter().count())
+                .isEqualTo(rejected.size());
+        assertThat(meterRegistry.get("employee.concurrency.rejected").tag("type", "read").counter().count()).isZero();
+        assertThat(meterRegistry.get("employee.concurrency.limit").tag("type", "write").gauge().value()).isBetween(2.0, 200.0);
+    }
+
+    private static Response batchGet(int employeeId) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(Map.of("ids", List.of(employeeId)))
+                .post("/api/v1/employee/batch-get");
+    }
+
+    private static Response create(String payrollId) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(Map.of(
+                        "firstName", "David",
+                        "lastName", "Kilan",
+                        "email", payrollId.toLowerCase() + "@example.com",
+                        "payrollId", payrollId,
+                        "annualSalary", BigDecimal.valueOf(12000),
+                        "salaryAllowancePercentage", BigDecimal.valueOf(30)))
+                .post("/api/v1/employee");
+    }
+}
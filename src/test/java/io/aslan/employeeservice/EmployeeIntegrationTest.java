@@ -2,7 +2,9 @@ package io.aslan.employeeservice;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.aslan.employeeservice.repository.EmployeeRepository;
+import io.aslan.employeeservice.service.AllowanceSummaryReconciler;
 import io.restassured.RestAssured;
+import io.restassured.config.DecoderConfig;
 import io.restassured.config.JsonConfig;
 import io.restassured.http.ContentType;
 import io.restassured.parsing.Parser;
@@ -11,6 +13,7 @@ import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
@@ -26,6 +29,7 @@ import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.sqs.SqsClient;
 import software.amazon.awssdk.services.sqs.model.CreateQueueRequest;
 import software.amazon.awssdk.services.sqs.model.CreateQueueResponse;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageRequest;
 import software.amazon.awssdk.services.sqs.model.Message;
 import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
 
@@ -33,13 +37,22 @@ import java.math.BigDecimal;
 import java.sql.Timestamp;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static io.restassured.RestAssured.given;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
 import static org.testcontainers.containers.localstack.LocalStackContainer.Service.SQS;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -66,6 +79,9 @@ class EmployeeIntegrationTest {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private AllowanceSummaryReconciler allowanceSummaryReconciler;
+
     private ObjectMapper objectMapper = new ObjectMapper();
 
     @DynamicPropertySource
@@ -227,7 +243,7 @@ class EmployeeIntegrationTest {
         var dbResult = jdbcTemplate.queryForMap(sql, employeeId);
 
         assertThat(dbResult)
-                .hasSize(8)
+                .hasSize(9)
                 .containsKey("id")
                 .containsEntry("first_name", "David")
                 .containsEntry("last_name", "Kilan")
@@ -297,12 +313,13 @@ class EmployeeIntegrationTest {
         var dbResult = jdbcTemplate.queryForMap(sql, employeeId);
 
         assertThat(dbResult)
-                .hasSize(8)
+                .hasSize(9)
                 .containsKey("id")
                 .containsEntry("first_name", "David_updated")
                 .containsEntry("last_name", "Kilan_updated")
                 .containsEntry("email", "david.kilan.updated@example.com")
                 .containsEntry("payroll_id", "PAY123_updated")
+                .containsEntry("version", 1L)
                 .hasEntrySatisfying("annual_salary", (actual) -> {
                     assertThat((BigDecimal) actual).isEqualByComparingTo(BigDecimal.valueOf(18000));
                 })
@@ -337,6 +354,8 @@ class EmployeeIntegrationTest {
                     .containsEntry("newMonthlyAllowance", 600d);
         });
 
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM allowance_outbox", Integer.class)).isZero());
     }
 
     @Test
@@ -374,4 +393,830 @@ class EmployeeIntegrationTest {
         int countAfterDelete = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employee", Integer.class);
         assertThat(countAfterDelete).isZero();
     }
-}
\ No newline at end of file
+
+    @Test
+    void testBulkImportShouldCreateValidRowsAndReportConflicts() {
+        var body = """
+                {"firstName":"David","lastName":"Kilan","email":"david.kilan@example.com","payrollId":"PAY123","annualSalary":12000,"salaryAllowancePercentage":30}
+                {"firstName":"David2","lastName":"Kilan2","email":"david.kilan2@example.com","payrollId":"PAY123","annualSalary":12000,"salaryAllowancePercentage":30}
+                {"firstName":"David3","lastName":"Kilan3","payrollId":"PAY125","annualSalary":12000,"salaryAllowancePercentage":30}
+                {"firstName":"David4","lastName":"Kilan4","email":"david.kilan4@example.com","payrollId":"PAY126","annualSalary":15000,"salaryAllowancePercentage":20}
+                """;
+
+        given()
+                .contentType("application/x-ndjson")
+                .body(body)
+                .post("/api/v1/employee/bulk")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("total", equalTo(4))
+                .body("created", equalTo(2))
+                .body("failed", equalTo(2))
+                .body("rows[0].status", equalTo("CREATED"))
+                .body("rows[1].status", equalTo("CONFLICT"))
+                .body("rows[2].status", equalTo("INVALID"))
+                .body("rows[3].status", equalTo("CREATED"))
+                .body("rows[3].payrollId", equalTo("PAY126"));
+
+        int count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employee", Integer.class);
+        assertThat(count).isEqualTo(2);
+    }
+
+    @Test
+    void testGetEmployeesWithCursorShouldWalkAllPagesInSortOrder() {
+        createEmployee("PAY1", "one@example.com", 30000);
+        createEmployee("PAY2", "two@example.com", 10000);
+        createEmployee("PAY3", "three@example.com", 20000);
+
+        var firstPage = given()
+                .queryParam("cursor", "")
+                .queryParam("sort", "annualSalary")
+                .queryParam("size", 2)
+                .get("/api/v1/employee")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("employees.size()", equalTo(2))
+                .body("employees[0].payrollId", equalTo("PAY2"))
+                .body("employees[1].payrollId", equalTo("PAY3"))
+                .extract()
+                .jsonPath();
+
+        given()
+                .queryParam("cursor", firstPage.getString("nextCursor"))
+                .queryParam("sort", "annualSalary")
+                .queryParam("size", 2)
+                .get("/api/v1/employee")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("employees.size()", equalTo(1))
+                .body("employees[0].payrollId", equalTo("PAY1"))
+                .body("nextCursor", equalTo(null));
+
+        given()
+                .queryParam("cursor", firstPage.getString("nextCursor"))
+                .queryParam("sort", "id")
+                .get("/api/v1/employee")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    void testExportShouldStreamAllEmployeesAsNdjsonAndCsv() {
+        createEmployee("PAY1", "one@example.com", 30000);
+        createEmployee("PAY2", "two@example.com", 10000);
+
+        String ndjson = given()
+                .queryParam("format", "ndjson")
+                .get("/api/v1/employee/export")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .contentType("application/x-ndjson")
+                .extract()
+                .asString();
+
+        assertThat(ndjson.lines().toList())
+                .hasSize(2)
+                .allSatisfy(line -> assertThat(objectMapper.readValue(line, Map.class)).containsKey("payrollId"));
+
+        String csv = given()
+                .queryParam("format", "csv")
+                .get("/api/v1/employee/export")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .contentType("text/csv")
+                .extract()
+                .asString();
+
+        assertThat(csv.lines().toList())
+                .hasSize(3)
+                .first()
+                .isEqualTo("id,firstName,lastName,email,payrollId,annualSalary,salaryAllowancePercentage");
+        assertThat(csv).contains(",David,Kilan,one@example.com,PAY1,30000.00,30.00");
+    }
+
+    @Test
+    void testGetEmployeeShouldNotServeStaleDataAfterUpdate() {
+        var request = new HashMap<String, Object>(Map.of(
+                "firstName", "David",
+                "lastName", "Kilan",
+                "email", "david.kilan@example.com",
+                "payrollId", "PAY123",
+                "annualSalary", BigDecimal.valueOf(12000),
+                "salaryAllowancePercentage", BigDecimal.valueOf(30)));
+
+        int employeeId = given()
+                .contentType(ContentType.JSON)
+                .body(request)
+                .post("/api/v1/employee")
+                .then()
+                .statusCode(HttpStatus.CREATED.value())
+                .extract()
+                .jsonPath()
+                .getInt("id");
+
+        given().get("/api/v1/employee/" + employeeId)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("lastName", equalTo("Kilan"));
+
+        request.put("lastName", "Kilan_updated");
+        given()
+                .contentType(ContentType.JSON)
+                .body(request)
+                .put("/api/v1/employee/" + employeeId)
+                .then()
+                .statusCode(HttpStatus.OK.value());
+
+        given().get("/api/v1/employee/" + employeeId)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("lastName", equalTo("Kilan_updated"));
+    }
+
+    @Test
+    void testPrometheusEndpointShouldExposeServiceMetrics() {
+        createEmployee("PAY1", "one@example.com", 30000);
+        given().get("/api/v1/employee").then().statusCode(HttpStatus.OK.value());
+
+        String metrics = given()
+                .get("/actuator/prometheus")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract()
+                .asString();
+
+        assertThat(metrics)
+                .contains("employee_service_seconds_bucket")
+                .contains("http_server_requests_seconds_bucket")
+                .contains("spring_data_repository_invocations_seconds_bucket")
+                .contains("hikaricp_connections_pending")
+                .contains("notification_outbox_lag_seconds");
+    }
+
+    @Test
+    void testUpdateEmployeeWithIfMatchShouldRejectStaleVersions() {
+        createEmployee("PAY1", "one@example.com", 30000);
+        Long employeeId = jdbcTemplate.queryForObject("SELECT id FROM employee WHERE payroll_id = 'PAY1'", Long.class);
+
+        given()
+                .get("/api/v1/employee/" + employeeId)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .header("ETag", etag(employeeId, 0));
+
+        var updateEmployeeRequest = Map.of(
+                "firstName", "David",
+                "lastName", "Kilan",
+                "email", "one@example.com",
+                "payrollId", "PAY1",
+                "annualSalary", BigDecimal.valueOf(40000),
+                "salaryAllowancePercentage", BigDecimal.valueOf(30));
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("If-Match", etag(employeeId, 0))
+                .body(updateEmployeeRequest)
+                .put("/api/v1/employee/" + employeeId)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .header("ETag", etag(employeeId, 1));
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("If-Match", etag(employeeId, 0))
+                .body(updateEmployeeRequest)
+                .put("/api/v1/employee/" + employeeId)
+                .then()
+                .statusCode(HttpStatus.PRECONDITION_FAILED.value());
+
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM employee WHERE id = ?", Long.class, employeeId))
+                .isEqualTo(1L);
+    }
+
+    @Test
+    void testSearchEmployeesShouldFilterAndPageWithIndexes() {
+        createEmployee("PAY1", "one@example.com", 30000);
+        createEmployee("PAY2", "two@Example.com", 10000);
+        createEmployee("PAY3", "three@example.com", 20000);
+        createEmployee("PAY4", "four@other.org", 25000);
+
+        var firstPage = given()
+                .queryParam("lastNamePrefix", "kil")
+                .queryParam("emailDomain", "example.com")
+                .queryParam("minAnnualSalary", 15000)
+                .queryParam("size", 1)
+                .get("/api/v1/employee/search")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("employees.size()", equalTo(1))
+                .body("employees[0].payrollId", equalTo("PAY1"))
+                .extract()
+                .jsonPath();
+
+        given()
+                .queryParam("lastNamePrefix", "kil")
+                .queryParam("emailDomain", "example.com")
+                .queryParam("minAnnualSalary", 15000)
+                .queryParam("size", 1)
+                .queryParam("cursor", firstPage.getString("nextCursor"))
+                .get("/api/v1/employee/search")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("employees.size()", equalTo(1))
+                .body("employees[0].payrollId", equalTo("PAY3"))
+                .body("nextCursor", equalTo(null));
+
+        given()
+                .queryParam("emailDomain", "example.com")
+                .queryParam("maxAnnualSalary", 10000)
+                .queryParam("salaryChangedFrom", "2000-01-01T00:00:00")
+                .get("/api/v1/employee/search")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("employees.size()", equalTo(1))
+                .body("employees[0].payrollId", equalTo("PAY2"));
+
+        given()
+                .queryParam("salaryChangedTo", "2000-01-01T00:00:00")
+                .get("/api/v1/employee/search")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("employees.size()", equalTo(0));
+
+        given()
+                .queryParam("lastNamePrefix", "%")
+                .get("/api/v1/employee/search")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("employees.size()", equalTo(0));
+
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE tablename = 'employee'", String.class);
+        assertThat(indexes).contains("idx_employee_last_name_prefix", "idx_employee_email_domain",
+                "idx_employee_annual_salary", "idx_employee_salary_allowance_percentage",
+                "idx_employee_last_salary_changed_date");
+    }
+
+    @Test
+    void testBatchGetShouldReturnEmployeesInRequestedOrderAndReportMissingKeys() {
+        createEmployee("PAY1", "one@example.com", 30000);
+        createEmployee("PAY2", "two@example.com", 10000);
+        Long firstId = jdbcTemplate.queryForObject("SELECT id FROM employee WHERE payroll_id = 'PAY1'", Long.class);
+        Long secondId = jdbcTemplate.queryForObject("SELECT id FROM employee WHERE payroll_id = 'PAY2'", Long.class);
+        long missingId = secondId + 1000;
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(Map.of("ids", List.of(secondId, missingId, firstId)))
+                .post("/api/v1/employee/batch-get")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("employees.size()", equalTo(2))
+                .body("employees[0].payrollId", equalTo("PAY2"))
+                .body("employees[1].payrollId", equalTo("PAY1"))
+                .body("notFoundIds.size()", equalTo(1))
+                .body("notFoundIds[0]", equalTo((int) missingId));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(Map.of("payrollIds", List.of("PAY1", "PAY9")))
+                .post("/api/v1/employee/batch-get")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("employees.size()", equalTo(1))
+                .body("employees[0].id", equalTo(firstId.intValue()))
+                .body("notFoundPayrollIds", equalTo(List.of("PAY9")));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(Map.of("ids", List.of(firstId), "payrollIds", List.of("PAY1")))
+                .post("/api/v1/employee/batch-get")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    void testSalaryReviewShouldRaiseSalariesAndQueueAllowanceMessages() {
+        createEmployee("PAY1", "one@example.com", 30000);
+        createEmployee("PAY2", "two@example.com", 10000);
+        createEmployee("PAY3", "three@other.org", 20000);
+
+        String location = given()
+                .contentType(ContentType.JSON)
+                .body(Map.of(
+                        "filter", Map.of("emailDomain", "example.com"),
+                        "adjustmentType", "PERCENTAGE",
+                        "amount", BigDecimal.TEN))
+                .post("/api/v1/employee/salary-review")
+                .then()
+                .statusCode(HttpStatus.ACCEPTED.value())
+                .body("total", equalTo(2))
+                .extract()
+                .header(HttpHeaders.LOCATION);
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> given()
+                .get(location)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("status", equalTo("COMPLETED"))
+                .body("processed", equalTo(2))
+                .body("updated", equalTo(2))
+                .body("skipped", equalTo(0)));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT annual_salary FROM employee WHERE payroll_id = 'PAY1'", BigDecimal.class))
+                .isEqualByComparingTo("33000");
+        assertThat(jdbcTemplate.queryForObject("SELECT annual_salary FROM employee WHERE payroll_id = 'PAY2'", BigDecimal.class))
+                .isEqualByComparingTo("11000");
+        assertThat(jdbcTemplate.queryForObject("SELECT annual_salary FROM employee WHERE payroll_id = 'PAY3'", BigDecimal.class))
+                .isEqualByComparingTo("20000");
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM employee WHERE payroll_id = 'PAY1'", Long.class))
+                .isEqualTo(1L);
+
+        List<Map<String, Object>> messageBodies = new ArrayList<>();
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            for (Message message : sqsClient.receiveMessage(ReceiveMessageRequest.builder()
+                    .queueUrl(notificationServiceQueueUrl)
+                    .maxNumberOfMessages(10)
+                    .waitTimeSeconds(1)
+                    .build()).messages()) {
+                messageBodies.add(objectMapper.readValue(message.body(), Map.class));
+                sqsClient.deleteMessage(DeleteMessageRequest.builder()
+                        .queueUrl(notificationServiceQueueUrl)
+                        .receiptHandle(message.receiptHandle())
+                        .build());
+            }
+            assertThat(messageBodies).hasSize(2);
+        });
+        assertThat(messageBodies)
+                .extracting(body -> body.get("newMonthlyAllowance"))
+                .containsExactlyInAnyOrder(825d, 275d);
+
+        given()
+                .get("/api/v1/employee/salary-review/unknown")
+                .then()
+                .statusCode(HttpStatus.NOT_FOUND.value());
+    }
+
+    @Test
+    void testCreateEmployeeWithIdempotencyKeyShouldExecuteOnceForConcurrentRetries() throws Exception {
+        String idempotencyKey = UUID.randomUUID().toString();
+        var request = Map.of(
+                "firstName", "David",
+                "lastName", "Kilan",
+                "email", "david.kilan@example.com",
+                "payrollId", "PAY123",
+                "annualSalary", BigDecimal.valueOf(12000),
+                "salaryAllowancePercentage", BigDecimal.valueOf(30));
+
+        List<Integer> employeeIds;
+        try (ExecutorService executor = Executors.newFixedThreadPool(5)) {
+            List<Future<Integer>> responses = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                responses.add(executor.submit(() -> given()
+                        .contentType(ContentType.JSON)
+                        .header("Idempotency-Key", idempotencyKey)
+                        .body(request)
+                        .post("/api/v1/employee")
+                        .then()
+                        .statusCode(HttpStatus.CREATED.value())
+                        .extract()
+                        .jsonPath()
+                        .getInt("id")));
+            }
+            employeeIds = new ArrayList<>();
+            for (Future<Integer> response : responses) {
+                employeeIds.add(response.get());
+            }
+        }
+
+        assertThat(employeeIds).containsOnly(employeeIds.get(0));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employee", Integer.class)).isEqualTo(1);
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("Idempotency-Key", idempotencyKey)
+                .body(request)
+                .post("/api/v1/employee")
+                .then()
+                .statusCode(HttpStatus.CREATED.value())
+                .header("Idempotent-Replayed", "true")
+                .body("id", equalTo(employeeIds.get(0)));
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("Idempotency-Key", idempotencyKey)
+                .body(Map.of(
+                        "firstName", "Other",
+                        "lastName", "Kilan",
+                        "email", "other@example.com",
+                        "payrollId", "PAY456",
+                        "annualSalary", BigDecimal.valueOf(12000),
+                        "salaryAllowancePercentage", BigDecimal.valueOf(30)))
+                .post("/api/v1/employee")
+                .then()
+                .statusCode(HttpStatus.UNPROCESSABLE_ENTITY.value());
+    }
+
+    @Test
+    void testUpdateEmployeeWithIdempotencyKeyShouldReplayTheFirstResponse() {
+        createEmployee("PAY1", "one@example.com", 30000);
+        Long employeeId = jdbcTemplate.queryForObject("SELECT id FROM employee WHERE payroll_id = 'PAY1'", Long.class);
+        String idempotencyKey = UUID.randomUUID().toString();
+        var updateEmployeeRequest = Map.of(
+                "firstName", "David",
+                "lastName", "Kilan",
+                "email", "one@example.com",
+                "payrollId", "PAY1",
+                "annualSalary", BigDecimal.valueOf(40000),
+                "salaryAllowancePercentage", BigDecimal.valueOf(30));
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            given()
+                    .contentType(ContentType.JSON)
+                    .header("If-Match", etag(employeeId, 0))
+                    .header("Idempotency-Key", idempotencyKey)
+                    .body(updateEmployeeRequest)
+                    .put("/api/v1/employee/" + employeeId)
+                    .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .header("ETag", etag(employeeId, 1));
+        }
+
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM employee WHERE id = ?", Long.class, employeeId))
+                .isEqualTo(1L);
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM idempotency_record WHERE idempotency_key = ?", String.class, idempotencyKey))
+                .isEqualTo("COMPLETED");
+    }
+
+    @Test
+    void testUpdateEmployeeShouldRecordSalaryHistory() {
+        LocalDateTime from = LocalDateTime.now().minusMinutes(1);
+        createEmployee("PAY1", "one@example.com", 30000);
+        Long employeeId = jdbcTemplate.queryForObject("SELECT id FROM employee WHERE payroll_id = 'PAY1'", Long.class);
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(Map.of(
+                        "firstName", "David",
+                        "lastName", "Kilan",
+                        "email", "one@example.com",
+                        "payrollId", "PAY1",
+                        "annualSalary", BigDecimal.valueOf(40000),
+                        "salaryAllowancePercentage", BigDecimal.valueOf(35)))
+                .put("/api/v1/employee/" + employeeId)
+                .then()
+                .statusCode(HttpStatus.OK.value());
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> given()
+                .get("/api/v1/employee/" + employeeId + "/salary-history")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("size()", equalTo(1))
+                .body("[0].oldAnnualSalary", equalTo(30000.0))
+                .body("[0].newAnnualSalary", equalTo(40000.0))
+                .body("[0].oldSalaryAllowancePercentage", equalTo(30.0))
+                .body("[0].newSalaryAllowancePercentage", equalTo(35.0))
+                .body("[0].source", equalTo("API")));
+
+        given()
+                .queryParam("from", from.toString())
+                .queryParam("to", LocalDateTime.now().plusMinutes(1).toString())
+                .get("/api/v1/employee/salary-history")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("findAll { it.employeeId == " + employeeId + " }.size()", equalTo(1));
+
+        given()
+                .queryParam("from", from.toString())
+                .queryParam("to", from.toString())
+                .get("/api/v1/employee/salary-history")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    void testGetEmployeeByNaturalKeyShouldFollowUpdatesAndDeletes() {
+        createEmployee("LOOKUP1", "lookup.one@example.com", 30000);
+        Long employeeId = jdbcTemplate.queryForObject("SELECT id FROM employee WHERE payroll_id = 'LOOKUP1'", Long.class);
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            given()
+                    .get("/api/v1/employee/by-payroll-id/LOOKUP1")
+                    .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .header("ETag", etag(employeeId, 0))
+                    .body("id", equalTo(employeeId.doubleValue()));
+            given()
+                    .get("/api/v1/employee/by-email/lookup.one@example.com")
+                    .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .body("id", equalTo(employeeId.doubleValue()));
+        }
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(Map.of(
+                        "firstName", "David",
+                        "lastName", "Kilan",
+                        "email", "lookup.two@example.com",
+                        "payrollId", "LOOKUP2",
+                        "annualSalary", BigDecimal.valueOf(30000),
+                        "salaryAllowancePercentage", BigDecimal.valueOf(30)))
+                .put("/api/v1/employee/" + employeeId)
+                .then()
+                .statusCode(HttpStatus.OK.value());
+
+        given().get("/api/v1/employee/by-payroll-id/LOOKUP1").then().statusCode(HttpStatus.NOT_FOUND.value());
+        given().get("/api/v1/employee/by-email/lookup.one@example.com").then().statusCode(HttpStatus.NOT_FOUND.value());
+        given()
+                .get("/api/v1/employee/by-payroll-id/LOOKUP2")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("email", equalTo("lookup.two@example.com"));
+
+        given().delete("/api/v1/employee/" + employeeId).then().statusCode(HttpStatus.OK.value());
+
+        given().get("/api/v1/employee/by-payroll-id/LOOKUP2").then().statusCode(HttpStatus.NOT_FOUND.value());
+        given().get("/api/v1/employee/by-email/lookup.two@example.com").then().statusCode(HttpStatus.NOT_FOUND.value());
+    }
+
+    @Test
+    void testGetEmployeeByPayrollIdShouldNotMatchTagsOfItsPreviousOwner() {
+        createEmployee("MOVE1", "move.one@example.com", 30000);
+        Long previousOwnerId = jdbcTemplate.queryForObject("SELECT id FROM employee WHERE payroll_id = 'MOVE1'", Long.class);
+        String previousOwnerTag = given()
+                .get("/api/v1/employee/by-payroll-id/MOVE1")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .header("ETag", etag(previousOwnerId, 0))
+                .extract()
+                .header("ETag");
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(Map.of("payrollId", "MOVE2"))
+                .patch("/api/v1/employee/" + previousOwnerId)
+                .then()
+                .statusCode(HttpStatus.OK.value());
+        createEmployee("MOVE1", "move.two@example.com", 40000);
+        Long employeeId = jdbcTemplate.queryForObject("SELECT id FROM employee WHERE payroll_id = 'MOVE1'", Long.class);
+
+        // the new owner is at version 0 too, only the id in the tag tells them apart
+        given()
+                .header("If-None-Match", previousOwnerTag)
+                .get("/api/v1/employee/by-payroll-id/MOVE1")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .header("ETag", etag(employeeId, 0))
+                .body("id", equalTo(employeeId.doubleValue()))
+                .body("email", equalTo("move.two@example.com"));
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("If-Match", previousOwnerTag)
+                .body(Map.of("lastName", "Other"))
+                .patch("/api/v1/employee/" + employeeId)
+                .then()
+                .statusCode(HttpStatus.PRECONDITION_FAILED.value());
+    }
+
+    @Test
+    void testPatchEmployeeShouldOnlyChangeGivenFields() {
+        createEmployee("PAY1", "one@example.com", 30000);
+        Long employeeId = jdbcTemplate.queryForObject("SELECT id FROM employee WHERE payroll_id = 'PAY1'", Long.class);
+        Timestamp createdSalaryChangedDate = jdbcTemplate.queryForObject(
+                "SELECT last_salary_changed_date FROM employee WHERE id = ?", Timestamp.class, employeeId);
+
+        given()
+                .contentType("application/merge-patch+json")
+                .header("If-Match", etag(employeeId, 0))
+                .body(Map.of("email", "one@other.org"))
+                .patch("/api/v1/employee/" + employeeId)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .header("ETag", etag(employeeId, 1))
+                .body("email", equalTo("one@other.org"))
+                .body("firstName", equalTo("David"))
+                .body("annualSalary", equalTo(30000.0));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM allowance_outbox WHERE employee_id = ?", Long.class, employeeId))
+                .isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT last_salary_changed_date FROM employee WHERE id = ?", Timestamp.class, employeeId))
+                .isEqualTo(createdSalaryChangedDate);
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(Map.of("annualSalary", BigDecimal.valueOf(36000)))
+                .patch("/api/v1/employee/" + employeeId)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .header("ETag", etag(employeeId, 2))
+                .body("email", equalTo("one@other.org"))
+                .body("annualSalary", equalTo(36000.0))
+                .body("salaryAllowancePercentage", equalTo(30.0));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT last_salary_changed_date FROM employee WHERE id = ?", Timestamp.class, employeeId))
+                .isAfter(createdSalaryChangedDate);
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("If-Match", etag(employeeId, 1))
+                .body(Map.of("lastName", "Other"))
+                .patch("/api/v1/employee/" + employeeId)
+                .then()
+                .statusCode(HttpStatus.PRECONDITION_FAILED.value());
+    }
+
+    @Test
+    void testGetEmployeeWithIfNoneMatchShouldReturnNotModifiedUntilItChanges() {
+        createEmployee("PAY1", "one@example.com", 30000);
+        Long employeeId = jdbcTemplate.queryForObject("SELECT id FROM employee WHERE payroll_id = 'PAY1'", Long.class);
+
+        given()
+                .header("If-None-Match", etag(employeeId, 0))
+                .get("/api/v1/employee/" + employeeId)
+                .then()
+                .statusCode(HttpStatus.NOT_MODIFIED.value())
+                .header("ETag", etag(employeeId, 0));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(Map.of("lastName", "Other"))
+                .patch("/api/v1/employee/" + employeeId)
+                .then()
+                .statusCode(HttpStatus.OK.value());
+
+        given()
+                .header("If-None-Match", etag(employeeId, 0))
+                .get("/api/v1/employee/" + employeeId)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .header("ETag", etag(employeeId, 1))
+                .body("lastName", equalTo("Other"));
+    }
+
+    @Test
+    void testGetEmployeesShouldCompressLargeResponsesAndSupportIfNoneMatch() {
+        for (int i = 0; i < 20; i++) {
+            createEmployee("PAY" + i, "employee" + i + "@example.com", 30000 + i);
+        }
+        var raw = RestAssured.config().decoderConfig(DecoderConfig.decoderConfig().noContentDecoders());
+
+        String etag = given()
+                .config(raw)
+                .header("Accept-Encoding", "gzip")
+                .get("/api/v1/employee?size=20")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .header("Content-Encoding", "gzip")
+                .header("Vary", containsString("Accept-Encoding"))
+                .header("ETag", startsWith("W/"))
+                .extract()
+                .header("ETag");
+
+        given()
+                .config(raw)
+                .get("/api/v1/employee?size=20")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .header("Content-Encoding", nullValue())
+                .header("ETag", etag.substring(2));
+
+        given()
+                .header("If-None-Match", etag)
+                .get("/api/v1/employee?size=20")
+                .then()
+                .statusCode(HttpStatus.NOT_MODIFIED.value());
+
+        given()
+                .config(raw)
+                .header("Accept-Encoding", "gzip")
+                .get("/api/v1/employee/" + jdbcTemplate.queryForObject("SELECT id FROM employee WHERE payroll_id = 'PAY0'", Long.class))
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .header("Content-Encoding", nullValue());
+
+        String metrics = given()
+                .get("/actuator/prometheus")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract()
+                .asString();
+
+        assertThat(metrics)
+                .contains("employee_http_compression_bytes_total")
+                .contains("employee_conditional_requests_total");
+    }
+
+    @Test
+    void testAllowanceSummaryShouldFollowWritesAndRepairDrift() {
+        // setUp deletes the employees behind the summary's back
+        allowanceSummaryReconciler.recompute();
+
+        createEmployee("SUM1", "sum.one@example.com", 30000);
+        createEmployee("SUM2", "sum.two@example.com", 60000);
+        Long firstId = jdbcTemplate.queryForObject("SELECT id FROM employee WHERE payroll_id = 'SUM1'", Long.class);
+        Long secondId = jdbcTemplate.queryForObject("SELECT id FROM employee WHERE payroll_id = 'SUM2'", Long.class);
+
+        given()
+                .get("/api/v1/employee/allowance-summary")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("headcount", equalTo(2))
+                .body("totalAnnualSalary", equalTo(90000.0))
+                .body("totalMonthlyAllowance", equalTo(2250.0))
+                .body("bands.size()", equalTo(1))
+                .body("bands[0].fromPercentage", equalTo(30.0))
+                .body("bands[0].toPercentage", equalTo(40.0));
+
+        updateSalary(firstId, "SUM1", "sum.one@example.com", 40000, 35);
+        updateSalary(secondId, "SUM2", "sum.two@example.com", 60000, 45);
+
+        given()
+                .get("/api/v1/employee/allowance-summary")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("headcount", equalTo(2))
+                .body("totalAnnualSalary", equalTo(100000.0))
+                .body("totalMonthlyAllowance", equalTo(3416.67))
+                .body("bands.size()", equalTo(2))
+                .body("bands[0].fromPercentage", equalTo(30.0))
+                .body("bands[0].totalMonthlyAllowance", equalTo(1166.67))
+                .body("bands[1].fromPercentage", equalTo(40.0))
+                .body("bands[1].totalMonthlyAllowance", equalTo(2250.0));
+
+        given()
+                .delete("/api/v1/employee/" + firstId)
+                .then()
+                .statusCode(HttpStatus.OK.value());
+
+        given()
+                .get("/api/v1/employee/allowance-summary")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("headcount", equalTo(1))
+                .body("totalAnnualSalary", equalTo(60000.0))
+                .body("totalMonthlyAllowance", equalTo(2250.0))
+                .body("bands.size()", equalTo(1));
+
+        jdbcTemplate.update("UPDATE allowance_band_summary SET headcount = headcount + 3");
+        jdbcTemplate.update("INSERT INTO allowance_band_summary (band_start, headcount, total_annual_salary, total_monthly_allowance) "
+                + "VALUES (90, 1, 1, 1) ON CONFLICT (band_start) DO UPDATE SET headcount = 1");
+        allowanceSummaryReconciler.recompute();
+
+        given()
+                .get("/api/v1/employee/allowance-summary")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("headcount", equalTo(1))
+                .body("totalAnnualSalary", equalTo(60000.0))
+                .body("totalMonthlyAllowance", equalTo(2250.0))
+                .body("bands.size()", equalTo(1))
+                .body("bands[0].fromPercentage", equalTo(40.0));
+
+        String metrics = given()
+                .get("/actuator/prometheus")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract()
+                .asString();
+
+        assertThat(metrics)
+                .contains("employee_allowance_summary_drift_total")
+                .contains("employee_allowance_summary_recompute_seconds");
+    }
+
+    private void updateSalary(Long employeeId, String payrollId, String email, int annualSalary, int salaryAllowancePercentage) {
+        given()
+                .contentType(ContentType.JSON)
+                .body(Map.of(
+                        "firstName", "David",
+                        "lastName", "Kilan",
+                        "email", email,
+                        "payrollId", payrollId,
+                        "annualSalary", BigDecimal.valueOf(annualSalary),
+                        "salaryAllowancePercentage", BigDecimal.valueOf(salaryAllowancePercentage)))
+                .put("/api/v1/employee/" + employeeId)
+                .then()
+                .statusCode(HttpStatus.OK.value());
+    }
+
+    private static String etag(Long employeeId, long version) {
+        return "\"" + employeeId + "-" + version + "\"";
+    }
+
+    private void createEmployee(String payrollId, String email, int annualSalary) {
+        given()
+                .contentType(ContentType.JSON)
+                .body(Map.of(
+                        "firstName", "David",
+                        "lastName", "Kilan",
+                        "email", email,
+                        "payrollId", payrollId,
+                        "annualSalary", BigDecimal.valueOf(annualSalary),
+                        "salaryAllowancePercentage", BigDecimal.valueOf(30)))
+                .post("/api/v1/employee")
+                .then()
+                .statusCode(HttpStatus.CREATED.value());
+    }
+}
@@ -0,0 +1,210 @@
+package io.aslan.employeeservice;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.parsing.Parser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.localstack.LocalStackContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.CreateQueueRequest;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesRequest;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.testcontainers.containers.localstack.LocalStackContainer.Service.SQS;
+
+/**
+ * Sends HR system changes through a LocalStack queue whose redrive policy moves a message to the dead-letter queue
+ * after two failed receives.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers
+class EmployeeSyncIntegrationTest {
+
+    private static SqsClient sqsClient;
+    private static String syncQueueUrl;
+    private static String deadLetterQueueUrl;
+    private static String notificationServiceQueueUrl;
+
+    @Container
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+
+    @Container
+    static LocalStackContainer localStackContainer = new LocalStackContainer(DockerImageName.parse("localstack/localstack:3.5.0"));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @DynamicPropertySource
+    static void dataSourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+
+        registry.add("spring.cloud.aws.region.static", () -> localStackContainer.getRegion());
+        registry.add("spring.cloud.aws.credentials.access-key", () -> localStackContainer.getAccessKey());
+        registry.add("spring.cloud.aws.credentials.secret-key", () -> localStackContainer.getSecretKey());
+        registry.add("spring.cloud.aws.sqs.endpoint", () -> localStackContainer.getEndpointOverride(SQS)
+                .toString());
+
+        sqsClient = SqsClient.builder()
+                .region(Region.of(localStackContainer.getRegion()))
+                .endpointOverride(localStackContainer.getEndpointOverride(SQS))
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(localStackContainer.getAccessKey(), localStackContainer.getSecretKey())
+                ))
+                .build();
+
+        notificationServiceQueueUrl = sqsClient.createQueue(CreateQueueRequest.builder()
+                .queueName("notification-service-queue")
+                .build()).queueUrl();
+        deadLetterQueueUrl = sqsClient.createQueue(CreateQueueRequest.builder()
+                .queueName("employee-sync-dlq")
+                .build()).queueUrl();
+        String deadLetterQueueArn = sqsClient.getQueueAttributes(GetQueueAttributesRequest.builder()
+                .queueUrl(deadLetterQueueUrl)
+                .attributeNames(QueueAttributeName.QUEUE_ARN)
+                .build()).attributes().get(QueueAttributeName.QUEUE_ARN);
+        syncQueueUrl = sqsClient.createQueue(CreateQueueRequest.builder()
+                .queueName("employee-sync-queue")
+                .attributes(Map.of(
+                        QueueAttributeName.VISIBILITY_TIMEOUT, "1",
+                        QueueAttributeName.REDRIVE_POLICY,
+                        "{\"deadLetterTargetArn\":\"" + deadLetterQueueArn + "\",\"maxReceiveCount\":\"2\"}"))
+                .build()).queueUrl();
+
+        registry.add("notification.service.queue.url", () -> notificationServiceQueueUrl);
+        registry.add("employee.sync.enabled", () -> "true");
+        registry.add("employee.sync.queue-name", () -> "employee-sync-queue");
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.port = port;
+        RestAssured.defaultParser = Parser.JSON;
+    }
+
+    @Test
+    void testSyncShouldUpsertAndDeleteEmployeesAndDeadLetterPoisonMessages() throws Exception {
+        int raisedId = createEmployee("PAY-RAISE", "raise@example.com");
+        int renamedId = createEmployee("PAY-RENAME", "rename@example.com");
+        createEmployee("PAY-DELETE", "delete@example.com");
+
+        sqsClient.sendMessageBatch(SendMessageBatchRequest.builder()
+                .queueUrl(syncQueueUrl)
+                .entries(
+                        entry("1", upsert("PAY-NEW", "First", "new@example.com", 24000)),
+                        entry("2", upsert("PAY-RAISE", "David", "raise@example.com", 24000)),
+                        entry("3", upsert("PAY-RENAME", "Renamed", "rename@example.com", 12000)),
+                        entry("4", "{\"type\":\"DELETE\",\"payrollId\":\"PAY-DELETE\"}"),
+                        entry("5", "not json"),
+                        entry("6", "{\"type\":\"UPSERT\",\"payrollId\":\"PAY-BAD\"}"))
+                .build());
+
+        await().atMost(Duration.ofSeconds(20)).untilAsserted(() -> {
+            assertThat(jdbcTemplate.queryForList("SELECT payroll_id FROM employee", String.class))
+                    .containsExactlyInAnyOrder("PAY-NEW", "PAY-RAISE", "PAY-RENAME");
+            assertThat(jdbcTemplate.queryForObject("SELECT first_name FROM employee WHERE id = ?", String.class, renamedId))
+                    .isEqualTo("Renamed");
+        });
+
+        given()
+                .get("/api/v1/employee/" + raisedId)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .header("ETag", "\"" + raisedId + "-1\"");
+
+        // only the raise changes an allowance; the new employee and the rename don't
+        List<Message> notifications = new ArrayList<>();
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            notifications.addAll(receive(notificationServiceQueueUrl));
+            assertThat(notifications).hasSize(1);
+        });
+        assertThat(objectMapper.readTree(notifications.getFirst().body()).get("id").asInt()).isEqualTo(raisedId);
+
+        List<Message> deadLetters = new ArrayList<>();
+        await().atMost(Duration.ofSeconds(30)).untilAsserted(() -> {
+            deadLetters.addAll(receive(deadLetterQueueUrl));
+            assertThat(deadLetters).extracting(Message::body)
+                    .containsExactlyInAnyOrder("not json", "{\"type\":\"UPSERT\",\"payrollId\":\"PAY-BAD\"}");
+        });
+    }
+
+    private List<Message> receive(String queueUrl) {
+        return sqsClient.receiveMessage(ReceiveMessageRequest.builder()
+                .queueUrl(queueUrl)
+                .maxNumberOfMessages(10)
+                .waitTimeSeconds(1)
+                .build()).messages();
+    }
+
+    private int createEmployee(String payrollId, String email) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(Map.of(
+                        "firstName", "David",
+                        "lastName", "Kilan",
+                        "email", email,
+                        "payrollId", payrollId,
+                        "annualSalary", BigDecimal.valueOf(12000),
+                        "salaryAllowancePercentage", BigDecimal.valueOf(30)))
+                .post("/api/v1/employee")
+                .then()
+                .statusCode(HttpStatus.CREATED.value())
+                .extract()
+                .jsonPath()
+                .getInt("id");
+    }
+
+    private String upsert(String payrollId, String firstName, String email, int annualSalary) throws Exception {
+        return objectMapper.writeValueAsString(Map.of(
+                "type", "UPSERT",
+                "payrollId", payrollId,
+                "firstName", firstName,
+                "lastName", "Kilan",
+                "email", email,
+                "annualSalary", annualSalary,
+                "salaryAllowancePercentage", 30));
+    }
+
+    private static SendMessageBatchRequestEntry entry(String id, String body) {
+        return SendMessageBatchRequestEntry.builder()
+                .id(id)
+                .messageBody(body)
+                .build();
+    }
+}
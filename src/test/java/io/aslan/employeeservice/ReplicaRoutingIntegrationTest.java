@@ -0,0 +1,172 @@
+package io.aslan.employeeservice;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.parsing.Parser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.localstack.LocalStackContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.CreateQueueRequest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.equalTo;
+import static org.testcontainers.containers.localstack.LocalStackContainer.Service.SQS;
+
+/**
+ * Runs the service against a Postgres primary with one streaming replica.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers
+class ReplicaRoutingIntegrationTest {
+
+    private static final DockerImageName POSTGRES_IMAGE = DockerImageName.parse("bitnami/postgresql:16");
+    private static final String DATABASE = "employees";
+    private static final String USERNAME = "employees";
+    private static final String PASSWORD = "employees";
+    private static final String REPLICA_POOL = "employee-service-replica-1";
+
+    static Network network = Network.newNetwork();
+
+    @Container
+    static GenericContainer<?> primary = new GenericContainer<>(POSTGRES_IMAGE)
+            .withNetwork(network)
+            .withNetworkAliases("postgres-primary")
+            .withEnv("POSTGRESQL_REPLICATION_MODE", "master")
+            .withEnv("POSTGRESQL_REPLICATION_USER", "replicator")
+            .withEnv("POSTGRESQL_REPLICATION_PASSWORD", "replicator")
+            .withEnv("POSTGRESQL_USERNAME", USERNAME)
+            .withEnv("POSTGRESQL_PASSWORD", PASSWORD)
+            .withEnv("POSTGRESQL_DATABASE", DATABASE)
+            .withExposedPorts(5432)
+            .waitingFor(Wait.forLogMessage(".*database system is ready to accept connections.*", 1));
+
+    @Container
+    static GenericContainer<?> replica = new GenericContainer<>(POSTGRES_IMAGE)
+            .withNetwork(network)
+            .dependsOn(primary)
+            .withEnv("POSTGRESQL_REPLICATION_MODE", "slave")
+            .withEnv("POSTGRESQL_REPLICATION_USER", "replicator")
+            .withEnv("POSTGRESQL_REPLICATION_PASSWORD", "replicator")
+            .withEnv("POSTGRESQL_MASTER_HOST", "postgres-primary")
+            .withEnv("POSTGRESQL_MASTER_PORT_NUMBER", "5432")
+            .withEnv("POSTGRESQL_PASSWORD", PASSWORD)
+            .withExposedPorts(5432)
+            .waitingFor(Wait.forLogMessage(".*database system is ready to accept read-only connections.*", 1));
+
+    @Container
+    static LocalStackContainer localStackContainer = new LocalStackContainer(DockerImageName.parse("localstack/localstack:3.5.0"));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void dataSourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> jdbcUrl(primary));
+        registry.add("spring.datasource.username", () -> USERNAME);
+        registry.add("spring.datasource.password", () -> PASSWORD);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        registry.add("employee.datasource.replica-urls", () -> jdbcUrl(replica));
+
+        registry.add("spring.cloud.aws.region.static", () -> localStackContainer.getRegion());
+        registry.add("spring.cloud.aws.credentials.access-key", () -> localStackContainer.getAccessKey());
+        registry.add("spring.cloud.aws.credentials.secret-key", () -> localStackContainer.getSecretKey());
+        registry.add("spring.cloud.aws.sqs.endpoint", () -> localStackContainer.getEndpointOverride(SQS)
+                .toString());
+
+        SqsClient sqsClient = SqsClient.builder()
+                .region(Region.of(localStackContainer.getRegion()))
+                .endpointOverride(localStackContainer.getEndpointOverride(SQS))
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(localStackContainer.getAccessKey(), localStackContainer.getSecretKey())
+                ))
+                .build();
+        String queueUrl = sqsClient.createQueue(CreateQueueRequest.builder()
+                .queueName("notification-service-queue")
+                .build()).queueUrl();
+        registry.add("notification.service.queue.url", () -> queueUrl);
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.port = port;
+        RestAssured.defaultParser = Parser.JSON;
+    }
+
+    @Test
+    void testReadsShouldUseReplicaAndFallBackToPrimaryWhenItIsDown() {
+        int employeeId = given()
+                .contentType(ContentType.JSON)
+                .body(Map.of(
+                        "firstName", "David",
+                        "lastName", "Kilan",
+                        "email", "david.kilan@example.com",
+                        "payrollId", "PAY1",
+                        "annualSalary", BigDecimal.valueOf(12000),
+                        "salaryAllowancePercentage", BigDecimal.valueOf(30)))
+                .post("/api/v1/employee")
+                .then()
+                .statusCode(HttpStatus.CREATED.value())
+                .extract()
+                .jsonPath()
+                .getInt("id");
+
+        // read-your-writes: served by the primary even if the replica hasn't caught up
+        given()
+                .get("/api/v1/employee/" + employeeId)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("payrollId", equalTo("PAY1"));
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> given()
+                .get("/api/v1/employee")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("size()", equalTo(1)));
+        assertThat(replicaConnectionsAcquired()).isPositive();
+
+        replica.stop();
+
+        given()
+                .get("/api/v1/employee")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("size()", equalTo(1));
+    }
+
+    private long replicaConnectionsAcquired() {
+        return meterRegistry.get("hikaricp.connections.acquire")
+                .tag("pool", REPLICA_POOL)
+                .timer()
+                .count();
+    }
+
+    private static String jdbcUrl(GenericContainer<?> container) {
+        return "jdbc:postgresql://" + container.getHost() + ":" + container.getMappedPort(5432) + "/" + DATABASE;
+    }
+}
@@ -0,0 +1,161 @@
+package io.aslan.employeeservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import javax.sql.DataSource;
+
+
+class ReplicaRoutingDataSourceTest {
+
+    DataSource primary = Mockito.mock(DataSource.class);
+    DataSource firstReplica = Mockito.mock(DataSource.class);
+    DataSource secondReplica = Mockito.mock(DataSource.class);
+    Connection primaryConnection = Mockito.mock(Connection.class);
+    Connection firstReplicaConnection = Mockito.mock(Connection.class);
+    Connection secondReplicaConnection = Mockito.mock(Connection.class);
+    MutableClock clock = new MutableClock();
+
+    ReplicaRoutingDataSource underTest = new ReplicaRoutingDataSource(primary, List.of(firstReplica, secondReplica),
+            ReplicaSelection.ROUND_ROBIN, Duration.ofSeconds(30), clock);
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        Mockito.when(primary.getConnection()).thenReturn(primaryConnection);
+        Mockito.when(firstReplica.getConnection()).thenReturn(firstReplicaConnection);
+        Mockito.when(secondReplica.getConnection()).thenReturn(secondReplicaConnection);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void shouldUsePrimaryOutsideReadOnlyTransactions() throws SQLException {
+        Assertions.assertThat(underTest.getConnection()).isSameAs(primaryConnection);
+        Assertions.assertThat(underTest.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void shouldSpreadReadOnlyTransactionsOverReplicas() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Assertions.assertThat(underTest.getConnection()).isSameAs(firstReplicaConnection);
+        Assertions.assertThat(underTest.getConnection()).isSameAs(secondReplicaConnection);
+        Assertions.assertThat(underTest.getConnection()).isSameAs(firstReplicaConnection);
+    }
+
+    @Test
+    void shouldSkipAReplicaThatIsDownUntilTheRetryIntervalHasPassed() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Mockito.when(firstReplica.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        Assertions.assertThat(underTest.getConnection()).isSameAs(primaryConnection);
+        Assertions.assertThat(underTest.getConnection()).isSameAs(secondReplicaConnection);
+        Assertions.assertThat(underTest.getConnection()).isSameAs(secondReplicaConnection);
+        Mockito.verify(firstReplica, Mockito.times(1)).getConnection();
+
+        clock.advance(Duration.ofSeconds(31));
+        Mockito.reset(firstReplica);
+        Mockito.when(firstReplica.getConnection()).thenReturn(firstReplicaConnection);
+
+        Assertions.assertThat(List.of(underTest.getConnection(), underTest.getConnection()))
+                .contains(firstReplicaConnection);
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenAllReplicasAreDown() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Mockito.when(firstReplica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        Mockito.when(secondReplica.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        Assertions.assertThat(underTest.getConnection()).isSameAs(primaryConnection);
+        Assertions.assertThat(underTest.getConnection()).isSameAs(primaryConnection);
+        Assertions.assertThat(underTest.getConnection()).isSameAs(primaryConnection);
+        Mockito.verify(firstReplica, Mockito.times(1)).getConnection();
+        Mockito.verify(secondReplica, Mockito.times(1)).getConnection();
+    }
+
+    @Test
+    void shouldReadRecentWritesFromPrimary() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReadYourWritesGuard guard = new ReadYourWritesGuard(Duration.ofSeconds(5));
+        guard.recordWrite(1L);
+
+        Connection recentlyWritten = guard.read(1L, this::connection);
+        Connection notWritten = guard.read(2L, this::connection);
+
+        Assertions.assertThat(recentlyWritten).isSameAs(primaryConnection);
+        Assertions.assertThat(notWritten).isSameAs(firstReplicaConnection);
+    }
+
+    @Test
+    void shouldPickTheReplicaWithFewestActiveConnections() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        HikariDataSource busyReplica = hikariReplica(8);
+        HikariDataSource idleReplica = hikariReplica(2);
+        Connection idleConnection = Mockito.mock(Connection.class);
+        Mockito.when(idleReplica.getConnection()).thenReturn(idleConnection);
+
+        ReplicaRoutingDataSource leastBusy = new ReplicaRoutingDataSource(primary, List.of(busyReplica, idleReplica),
+                ReplicaSelection.LEAST_BUSY, Duration.ofSeconds(30), clock);
+
+        Assertions.assertThat(leastBusy.getConnection()).isSameAs(idleConnection);
+        Mockito.verify(busyReplica, Mockito.never()).getConnection();
+    }
+
+    private Connection connection() {
+        try {
+            return underTest.getConnection();
+        } catch (SQLException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static HikariDataSource hikariReplica(int activeConnections) {
+        HikariDataSource replica = Mockito.mock(HikariDataSource.class);
+        HikariPoolMXBean pool = Mockito.mock(HikariPoolMXBean.class);
+        Mockito.when(pool.getActiveConnections()).thenReturn(activeConnections);
+        Mockito.when(replica.getHikariPoolMXBean()).thenReturn(pool);
+        return replica;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
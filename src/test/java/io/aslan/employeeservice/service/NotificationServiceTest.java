@@ -0,0 +1,107 @@
+package io.aslan.employeeservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.aslan.employeeservice.domain.entity.AllowanceOutboxMessage;
+import io.aslan.employeeservice.domain.entity.Employee;
+import io.aslan.employeeservice.domain.message.AllowanceUpdateMessage;
+import io.aslan.employeeservice.repository.AllowanceOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+
+class NotificationServiceTest {
+
+    AllowanceOutboxRepository allowanceOutboxRepository = Mockito.mock(AllowanceOutboxRepository.class);
+    ObjectMapper objectMapper = new ObjectMapper();
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    Employee employee = new Employee();
+
+    NotificationService underTest = new NotificationService(allowanceOutboxRepository, objectMapper, meterRegistry, Duration.ofSeconds(10));
+
+    @BeforeEach
+    void setUp() {
+        employee.setId(1L);
+        employee.setFirstName("David");
+        employee.setLastName("Kilan");
+        employee.setEmail("david.kilan@example.com");
+    }
+
+    @Test
+    void shouldQueueNewMessageWhenNothingIsPending() {
+        Mockito.when(allowanceOutboxRepository.lockCoalescible(eq(1L), any())).thenReturn(Optional.empty());
+
+        underTest.sendAllowanceUpdateMessage(employee, new BigDecimal("300.00"), new BigDecimal("400.00"));
+
+        ArgumentCaptor<AllowanceOutboxMessage> saved = ArgumentCaptor.forClass(AllowanceOutboxMessage.class);
+        Mockito.verify(allowanceOutboxRepository).save(saved.capture());
+        Assertions.assertThat(saved.getValue().getEmployeeId()).isEqualTo(1L);
+        Assertions.assertThat(read(saved.getValue()).newMonthlyAllowance()).isEqualByComparingTo("400.00");
+    }
+
+    @Test
+    void shouldMergeIntoPendingMessageKeepingTheOriginalCurrentAllowance() throws Exception {
+        AllowanceOutboxMessage pending = pendingMessage("300.00", "400.00");
+        Mockito.when(allowanceOutboxRepository.lockCoalescible(eq(1L), any())).thenReturn(Optional.of(pending));
+
+        underTest.sendAllowanceUpdateMessage(employee, new BigDecimal("400.00"), new BigDecimal("450.00"));
+
+        AllowanceUpdateMessage merged = read(pending);
+        Assertions.assertThat(merged.currentMonthlyAllowance()).isEqualByComparingTo("300.00");
+        Assertions.assertThat(merged.newMonthlyAllowance()).isEqualByComparingTo("450.00");
+        Mockito.verify(allowanceOutboxRepository, Mockito.never()).save(any());
+        Assertions.assertThat(meterRegistry.counter("notification.coalesced", "outcome", "merged").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDropPendingMessageWhenTheChangesNetToZero() throws Exception {
+        AllowanceOutboxMessage pending = pendingMessage("300.00", "400.00");
+        Mockito.when(allowanceOutboxRepository.lockCoalescible(eq(1L), any())).thenReturn(Optional.of(pending));
+
+        underTest.sendAllowanceUpdateMessage(employee, new BigDecimal("400.00"), new BigDecimal("300"));
+
+        Mockito.verify(allowanceOutboxRepository).delete(pending);
+        Mockito.verify(allowanceOutboxRepository, Mockito.never()).save(any());
+        Assertions.assertThat(meterRegistry.counter("notification.coalesced", "outcome", "dropped").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotLookForPendingMessagesWhenCoalescingIsDisabled() {
+        NotificationService withoutCoalescing = new NotificationService(allowanceOutboxRepository, objectMapper, meterRegistry, Duration.ZERO);
+
+        withoutCoalescing.sendAllowanceUpdateMessage(employee, new BigDecimal("300.00"), new BigDecimal("400.00"));
+
+        Mockito.verify(allowanceOutboxRepository, Mockito.never()).lockCoalescible(any(), any());
+        Mockito.verify(allowanceOutboxRepository).save(any());
+    }
+
+    private AllowanceOutboxMessage pendingMessage(String currentMonthlyAllowance, String newMonthlyAllowance) throws Exception {
+        AllowanceOutboxMessage message = new AllowanceOutboxMessage();
+        message.setId(10L);
+        message.setEmployeeId(1L);
+        message.setCreatedAt(LocalDateTime.now());
+        message.setNextAttemptAt(LocalDateTime.now());
+        message.setPayload(objectMapper.writeValueAsString(new AllowanceUpdateMessage(1L, "David", "Kilan",
+                new BigDecimal(currentMonthlyAllowance), new BigDecimal(newMonthlyAllowance), "david.kilan@example.com")));
+        return message;
+    }
+
+    private AllowanceUpdateMessage read(AllowanceOutboxMessage message) {
+        try {
+            return objectMapper.readValue(message.getPayload(), AllowanceUpdateMessage.class);
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package io.aslan.employeeservice.util;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    AdaptiveConcurrencyLimit underTest = new AdaptiveConcurrencyLimit(20, 5, 100, 1.5);
+
+    @Test
+    void shouldRejectRequestsOverTheLimit() {
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertThat(underTest.tryAcquire()).isTrue();
+        }
+
+        Assertions.assertThat(underTest.tryAcquire()).isFalse();
+        Assertions.assertThat(underTest.getInFlight()).isEqualTo(20);
+
+        underTest.release(FAST, false);
+        Assertions.assertThat(underTest.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void shouldGrowWhileLatencyIsSteadyAndTheLimitIsUsed() {
+        for (int i = 0; i < 200; i++) {
+            runAtFullLimit(FAST);
+        }
+
+        Assertions.assertThat(underTest.getLimit()).isEqualTo(100);
+    }
+
+    @Test
+    void shouldNotGrowWhileMostOfTheLimitIsUnused() {
+        for (int i = 0; i < 200; i++) {
+            underTest.tryAcquire();
+            underTest.release(FAST, false);
+        }
+
+        Assertions.assertThat(underTest.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void shouldShrinkWhenLatencyRises() {
+        for (int i = 0; i < 20; i++) {
+            runAtFullLimit(FAST);
+        }
+        int limitBeforeQueueing = underTest.getLimit();
+
+        for (int i = 0; i < 20; i++) {
+            runAtFullLimit(SLOW);
+        }
+
+        Assertions.assertThat(underTest.getLimit()).isLessThan(limitBeforeQueueing).isGreaterThanOrEqualTo(5);
+    }
+
+    @Test
+    void shouldRecoverAfterLatencyReturnsToNormal() {
+        for (int i = 0; i < 20; i++) {
+            runAtFullLimit(FAST);
+        }
+        for (int i = 0; i < 20; i++) {
+            runAtFullLimit(SLOW);
+        }
+        int limitAfterSlowPeriod = underTest.getLimit();
+
+        for (int i = 0; i < 200; i++) {
+            runAtFullLimit(FAST);
+        }
+
+        Assertions.assertThat(underTest.getLimit()).isGreaterThan(limitAfterSlowPeriod);
+    }
+
+    @Test
+    void shouldBackOffOnDroppedRequestsDownToTheMinimum() {
+        underTest.tryAcquire();
+        underTest.release(FAST, true);
+
+        Assertions.assertThat(underTest.getLimit()).isEqualTo(18);
+
+        for (int i = 0; i < 100; i++) {
+            underTest.tryAcquire();
+            underTest.release(FAST, true);
+        }
+
+        Assertions.assertThat(underTest.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldRejectInconsistentLimits() {
+        Assertions.assertThatThrownBy(() -> new AdaptiveConcurrencyLimit(5, 10, 100, 1.5))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatThrownBy(() -> new AdaptiveConcurrencyLimit(20, 5, 100, 0.5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // fills the current limit, then completes one request with the given latency
+    private void runAtFullLimit(long rttNanos) {
+        while (underTest.tryAcquire()) {
+        }
+        underTest.release(rttNanos, false);
+        while (underTest.getInFlight() > 0) {
+            underTest.release(rttNanos, false);
+        }
+    }
+}
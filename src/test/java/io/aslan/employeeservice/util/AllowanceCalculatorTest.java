@@ -4,6 +4,8 @@ import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
 
 
 class AllowanceCalculatorTest {
@@ -20,4 +22,79 @@ class AllowanceCalculatorTest {
 
         Assertions.assertThat(actual).isEqualByComparingTo(expectedMonthlyAllowance);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldMatchBigDecimalForEveryPercentageUpToOneHundred() {
+        long[] annualSalaries = {0, 1, 99, 1_000_000, 1_234_567, 3_600_000, 9_999_999, 12_345_678_901L};
+
+        for (long annualSalary : annualSalaries) {
+            for (long percentage = 0; percentage <= 10_000; percentage++) {
+                assertSameAsBigDecimal(BigDecimal.valueOf(annualSalary, 2), BigDecimal.valueOf(percentage, 2));
+            }
+        }
+    }
+
+    @Test
+    void shouldMatchBigDecimalForEverySalaryUpToTwoThousand() {
+        long[] percentages = {1, 5, 50, 333, 1250, 2500, 3000, 6667, 9999, 10_000};
+
+        for (long percentage : percentages) {
+            for (long annualSalary = 0; annualSalary <= 200_000; annualSalary++) {
+                assertSameAsBigDecimal(BigDecimal.valueOf(annualSalary, 2), BigDecimal.valueOf(percentage, 2));
+            }
+        }
+    }
+
+    @Test
+    void shouldMatchBigDecimalForRandomAmountsOfAnyScale() {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 500_000; i++) {
+            BigDecimal annualSalary = BigDecimal.valueOf(random.nextLong(-1_000_000_000_000L, 1_000_000_000_000L), random.nextInt(-2, 5));
+            BigDecimal percentage = BigDecimal.valueOf(random.nextLong(-100_000, 100_000), random.nextInt(-1, 5));
+            assertSameAsBigDecimal(annualSalary, percentage);
+        }
+    }
+
+    @Test
+    void shouldFallBackToBigDecimalWhenMinorUnitsOverflow() {
+        assertSameAsBigDecimal(new BigDecimal("123456789012345678.99"), new BigDecimal("30"));
+        assertSameAsBigDecimal(new BigDecimal("92233720368547758.07"), new BigDecimal("1.5"));
+        assertSameAsBigDecimal(new BigDecimal("9999999999999999"), new BigDecimal("99999999999.99"));
+        assertSameAsBigDecimal(new BigDecimal("12000.001"), new BigDecimal("30"));
+
+        Assertions.assertThat(underTest.getMonthlyAllowance(Long.MAX_VALUE / 2, 10_000)).isEqualTo(AllowanceCalculator.OVERFLOW);
+    }
+
+    @Test
+    void shouldCalculateBatchesTheSameAsSingleValues() {
+        Random random = new Random(7);
+        long[] annualSalaries = new long[10_000];
+        long[] percentages = new long[10_000];
+        long[] allowances = new long[10_000];
+        for (int i = 0; i < annualSalaries.length; i++) {
+            annualSalaries[i] = random.nextLong(0, 100_000_000_00L);
+            percentages[i] = random.nextLong(0, 10_001);
+        }
+        annualSalaries[0] = Long.MAX_VALUE;
+        percentages[0] = 10_000;
+
+        underTest.getMonthlyAllowances(annualSalaries, percentages, allowances);
+
+        for (int i = 0; i < allowances.length; i++) {
+            Assertions.assertThat(allowances[i]).isEqualTo(underTest.getMonthlyAllowance(annualSalaries[i], percentages[i]));
+        }
+        Assertions.assertThat(allowances[0]).isEqualTo(AllowanceCalculator.OVERFLOW);
+    }
+
+    private void assertSameAsBigDecimal(BigDecimal annualSalary, BigDecimal percentage) {
+        BigDecimal expected = annualSalary.multiply(percentage)
+                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP)
+                .divide(BigDecimal.valueOf(12), 2, RoundingMode.HALF_UP);
+
+        // equals, not compareTo: the scale has to match as well
+        Assertions.assertThat(underTest.getMonthlyAllowance(annualSalary, percentage))
+                .as("annualSalary=%s percentage=%s", annualSalary, percentage)
+                .isEqualTo(expected);
+    }
+}